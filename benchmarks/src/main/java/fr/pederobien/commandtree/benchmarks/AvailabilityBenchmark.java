@@ -0,0 +1,59 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import fr.pederobien.commandtree.impl.Tree;
+import fr.pederobien.commandtree.impl.Tree.TreeBuilder;
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AvailabilityBenchmark {
+
+	/**
+	 * The cost of the supplier: "cheap" returns a constant, "expensive" burns some CPU cycles as a permission check would.
+	 */
+	@Param({ "cheap", "expensive" })
+	private String supplier;
+
+	@Param({ "false", "true" })
+	private boolean cached;
+
+	private ICommandNode<String> node;
+
+	@Setup
+	public void setup() {
+		Supplier<Boolean> isAvailable = supplier.equals("cheap") ? () -> true : () -> {
+			Blackhole.consumeCPU(512);
+			return true;
+		};
+
+		TreeBuilder<String> builder = Tree.create("root", "The root", () -> true);
+		if (cached)
+			builder.withAvailabilityCache(null);
+		node = builder.addNode("node", "The node", isAvailable).withExecutor(args -> true).addAndGet();
+	}
+
+	@Benchmark
+	public boolean isAvailable() {
+		return node.isAvailable();
+	}
+}
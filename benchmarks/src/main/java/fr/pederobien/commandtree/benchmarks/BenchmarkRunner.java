@@ -0,0 +1,26 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkRunner {
+
+	/**
+	 * Runs the benchmarks with the GC profiler, in order to report the allocation rate of each benchmark besides its throughput. The
+	 * arguments are the usual JMH command line options, for example a regular expression that selects the benchmarks to run.
+	 * 
+	 * @param args The JMH command line options.
+	 * 
+	 * @throws CommandLineOptionException If the options cannot be parsed.
+	 * @throws RunnerException            If a benchmark fails.
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,41 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BuilderBenchmark {
+
+	@Param({ "100", "10000" })
+	private int width;
+
+	@Param({ "12" })
+	private int depth;
+
+	@Benchmark
+	public ICommandNode<String> wide() {
+		return Trees.wide(width).build();
+	}
+
+	@Benchmark
+	public ICommandNode<String> deep() {
+		return Trees.deep(depth, 8).build();
+	}
+}
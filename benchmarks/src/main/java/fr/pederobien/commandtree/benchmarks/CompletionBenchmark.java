@@ -0,0 +1,73 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.pederobien.commandtree.impl.CompletionMatcher;
+import fr.pederobien.commandtree.interfaces.ICommandRootNode;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CompletionBenchmark {
+
+	@Param({ "10000" })
+	private int width;
+
+	@Param({ "12" })
+	private int depth;
+
+	@Param({ "0", "1024" })
+	private int cacheSize;
+
+	@Param({ "SUBSTRING", "PREFIX" })
+	private CompletionMatcher matcher;
+
+	private ICommandRootNode<String> wide, deep;
+	private String[] widePrefix, wideChild, deepCompletion;
+
+	@Setup
+	public void setup() {
+		wide = (ICommandRootNode<String>) Trees.wide(width).withCompletionMatcher(matcher).withCompletionCache(cacheSize).build();
+		deep = (ICommandRootNode<String>) Trees.deep(depth, 8).withCompletionMatcher(matcher).withCompletionCache(cacheSize).build();
+
+		// The prefix of the labels of the children from 1200 to 1299.
+		widePrefix = new String[] { "node012" };
+		wideChild = new String[] { Trees.label(width / 2), "" };
+
+		String[] command = Trees.deepCommand(depth);
+		deepCompletion = new String[command.length + 1];
+		System.arraycopy(command, 0, deepCompletion, 0, command.length);
+		deepCompletion[command.length] = "";
+	}
+
+	@Benchmark
+	public List<String> widePrefix() {
+		return wide.onTabComplete(widePrefix);
+	}
+
+	@Benchmark
+	public List<String> wideChild() {
+		return wide.onTabComplete(wideChild);
+	}
+
+	@Benchmark
+	public List<String> deepLeaf() {
+		return deep.onTabComplete(deepCompletion);
+	}
+}
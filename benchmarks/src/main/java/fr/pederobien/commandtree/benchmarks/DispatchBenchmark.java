@@ -0,0 +1,77 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.pederobien.commandtree.interfaces.ICommandRootNode;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DispatchBenchmark {
+
+	@Param({ "10000" })
+	private int width;
+
+	@Param({ "12" })
+	private int depth;
+
+	private ICommandRootNode<String> wide, deep;
+	private String[] wideCommand, deepCommand, notFoundCommand;
+	private String wideLine, deepLine;
+
+	@Setup
+	public void setup() {
+		wide = (ICommandRootNode<String>) Trees.wide(width).build();
+		deep = (ICommandRootNode<String>) Trees.deep(depth, 8).build();
+
+		wideCommand = new String[] { Trees.label(width / 2), "argument" };
+		deepCommand = Trees.deepCommand(depth);
+		notFoundCommand = new String[] { "unknown" };
+		wideLine = String.join(" ", wideCommand);
+		deepLine = String.join(" ", deepCommand);
+	}
+
+	@Benchmark
+	public boolean wideCommand() {
+		return wide.onCommand(wideCommand);
+	}
+
+	@Benchmark
+	public boolean deepCommand() {
+		return deep.onCommand(deepCommand);
+	}
+
+	@Benchmark
+	public boolean wideLine() {
+		return wide.onCommand(wideLine);
+	}
+
+	@Benchmark
+	public boolean deepLine() {
+		return deep.onCommand(deepLine);
+	}
+
+	@Benchmark
+	public Object notFound() {
+		try {
+			return wide.onCommand(notFoundCommand);
+		} catch (RuntimeException e) {
+			return e;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import fr.pederobien.commandtree.impl.CommandHelperNode;
+import fr.pederobien.commandtree.impl.Tree;
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+import fr.pederobien.commandtree.interfaces.INode;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HelpBenchmark {
+
+	@Param({ "100" })
+	private int width;
+
+	@Param({ "12" })
+	private int depth;
+
+	private ICommandNode<String> wide, deep;
+	private String[] wideHelp, deepHelp;
+	private Blackhole blackhole;
+
+	@Setup
+	public void setup(Blackhole blackhole) {
+		this.blackhole = blackhole;
+		CommandHelperNode<String> wideHelper = new CommandHelperNode<String>(null, this::display);
+		wide = Trees.wide(Tree.create("root", "The root", () -> true, wideHelper), width).build();
+		wideHelper.setSource(wide);
+
+		CommandHelperNode<String> deepHelper = new CommandHelperNode<String>(null, this::display);
+		deep = Trees.deep(Tree.create("root", "The root", () -> true, deepHelper), depth, 8).build();
+		deepHelper.setSource(deep);
+
+		wideHelp = new String[] { "help" };
+		String[] command = Trees.deepCommand(depth);
+		deepHelp = new String[command.length];
+		deepHelp[0] = "help";
+		// The help of the parent of the leaf, that displays the leaf and its siblings.
+		System.arraycopy(command, 0, deepHelp, 1, command.length - 1);
+	}
+
+	@Benchmark
+	public boolean wideHelp() {
+		return wide.onCommand(wideHelp);
+	}
+
+	@Benchmark
+	public boolean deepHelp() {
+		return deep.onCommand(deepHelp);
+	}
+
+	/**
+	 * Gives the explanation of a displayed node to the blackhole instead of printing it.
+	 * 
+	 * @param node The displayed node.
+	 */
+	private void display(INode<String> node) {
+		blackhole.consume(String.format("%s - %s", node.getLabel(), node.getExplanation()));
+	}
+}
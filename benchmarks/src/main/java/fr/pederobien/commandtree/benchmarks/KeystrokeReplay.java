@@ -0,0 +1,236 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import fr.pederobien.commandtree.benchmarks.KeystrokeTrace.Event;
+import fr.pederobien.commandtree.benchmarks.KeystrokeTrace.Kind;
+import fr.pederobien.commandtree.impl.LatencyHistogram;
+import fr.pederobien.commandtree.interfaces.ICommandRootNode;
+import fr.pederobien.commandtree.interfaces.IMetricsSnapshot.ILatency;
+
+public class KeystrokeReplay {
+	private ICommandRootNode<?> root;
+	private KeystrokeTrace trace;
+	private int threads;
+	private long interval;
+
+	/**
+	 * Creates a load generator that replays a keystroke trace against a tree from several threads. Each thread replays the whole
+	 * trace in loop, starting at a different offset so that the threads do not request the same completions at the same time. The
+	 * events are sent at a fixed rate whatever the time the tree takes to answer them, and the latency of an event is measured from
+	 * the time it should have been sent: an event delayed by a slow previous one accounts for its waiting time, as it would for a
+	 * user typing at this rate.
+	 * 
+	 * @param root    The root of the tree.
+	 * @param trace   The trace to replay.
+	 * @param threads The number of threads that replay the trace.
+	 * @param rate    The number of events sent per second by all threads.
+	 */
+	public KeystrokeReplay(ICommandRootNode<?> root, KeystrokeTrace trace, int threads, int rate) {
+		if (threads <= 0)
+			throw new IllegalArgumentException("The number of threads must be strictly positive");
+		if (rate <= 0)
+			throw new IllegalArgumentException("The rate must be strictly positive");
+		if (trace.size() == 0)
+			throw new IllegalArgumentException("The trace must contain at least one event");
+
+		this.root = root;
+		this.trace = trace;
+		this.threads = threads;
+		interval = Math.max(1, 1_000_000_000L * threads / rate);
+	}
+
+	/**
+	 * Replays the trace during the given duration.
+	 * 
+	 * @param duration The duration of the replay.
+	 * 
+	 * @return The throughput and the latency of the completions and of the commands.
+	 * 
+	 * @throws InterruptedException If the calling thread is interrupted while waiting for the end of the replay.
+	 */
+	public Report run(Duration duration) throws InterruptedException {
+		LatencyHistogram completions = new LatencyHistogram(), commands = new LatencyHistogram();
+		LongAdder errors = new LongAdder();
+		CountDownLatch start = new CountDownLatch(1), end = new CountDownLatch(threads);
+
+		for (int i = 0; i < threads; i++) {
+			int offset = (int) ((long) trace.size() * i / threads);
+			// The threads send their events in turn instead of all at the same time.
+			long phase = interval * i / threads;
+			Thread worker = new Thread(() -> {
+				try {
+					start.await();
+					long begin = System.nanoTime() + phase;
+					replay(offset, begin, begin + duration.toNanos(), completions, commands, errors);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					end.countDown();
+				}
+			}, "keystroke-replay-" + i);
+			worker.setDaemon(true);
+			worker.start();
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		end.await();
+		return new Report(System.nanoTime() - begin, completions.snapshot(), commands.snapshot(), errors.sum());
+	}
+
+	private void replay(int offset, long begin, long deadline, LatencyHistogram completions, LatencyHistogram commands, LongAdder errors) {
+		List<Event> events = trace.getEvents();
+		long start = begin;
+		for (int index = offset;; index = index + 1 == events.size() ? 0 : index + 1, start += interval) {
+			if (start - deadline >= 0)
+				return;
+
+			// A thread late on its schedule sends the next event immediately, its latency includes the delay.
+			for (long now = System.nanoTime(); now - start < 0; now = System.nanoTime())
+				LockSupport.parkNanos(start - now);
+
+			Event event = events.get(index);
+			try {
+				if (event.getKind() == Kind.COMPLETE)
+					root.onTabComplete(event.getLine());
+				else
+					root.onCommand(event.getLine());
+			} catch (RuntimeException e) {
+				// An argument not found or not available is part of a realistic trace.
+				errors.increment();
+			}
+
+			(event.getKind() == Kind.COMPLETE ? completions : commands).record(System.nanoTime() - start);
+		}
+	}
+
+	public static class Report {
+		private long nanos, errors;
+		private ILatency completions, commands;
+
+		private Report(long nanos, ILatency completions, ILatency commands, long errors) {
+			this.nanos = nanos;
+			this.completions = completions;
+			this.commands = commands;
+			this.errors = errors;
+		}
+
+		/**
+		 * @return The duration of the replay, in nanoseconds.
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * @return The latency of the completion requests.
+		 */
+		public ILatency getCompletions() {
+			return completions;
+		}
+
+		/**
+		 * @return The latency of the submitted commands.
+		 */
+		public ILatency getCommands() {
+			return commands;
+		}
+
+		/**
+		 * @return The number of events for which the tree threw an exception.
+		 */
+		public long getErrors() {
+			return errors;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%s%n%s%nerrors : %s", format("onTabComplete", completions), format("onCommand", commands), errors);
+		}
+
+		private String format(String name, ILatency latency) {
+			double throughput = latency.getCount() * 1e9 / nanos;
+			return String.format(Locale.ROOT, "%-13s : %10.0f ops/s, p50 = %8.2f us, p99 = %8.2f us, p999 = %8.2f us, max = %8.2f us", name, throughput,
+					latency.getPercentileNanos(0.5) / 1e3, latency.getPercentileNanos(0.99) / 1e3, latency.getPercentileNanos(0.999) / 1e3,
+					latency.getMaxNanos() / 1e3);
+		}
+	}
+
+	/**
+	 * Replays a keystroke trace against a generated tree and prints the report. The options are given as "name=value" arguments:
+	 * <ul>
+	 * <li>tree : "wide" or "deep", the shape of the generated tree, "wide" by default.</li>
+	 * <li>width : the number of children of the root of a wide tree, 10000 by default.</li>
+	 * <li>depth : the depth of a deep tree, 12 by default.</li>
+	 * <li>trace : the path of a recorded trace, see {@link KeystrokeTrace#read(java.nio.file.Path)}. By default a synthetic trace is
+	 * generated.</li>
+	 * <li>commands : the number of commands of the synthetic trace, 1000 by default.</li>
+	 * <li>backspaces : the probability of a typing error in the synthetic trace, 0.05 by default.</li>
+	 * <li>record : the path where the synthetic trace is written, in order to replay it later.</li>
+	 * <li>threads : the number of threads that replay the trace, the number of processors by default.</li>
+	 * <li>rate : the number of events sent per second by all threads, 10000 by default.</li>
+	 * <li>warmup : the duration of the warm up in seconds, whose measures are discarded, 5 by default.</li>
+	 * <li>duration : the duration of the measured replay in seconds, 10 by default.</li>
+	 * <li>cache : the size of the completion cache of the tree, 0 (disabled) by default.</li>
+	 * </ul>
+	 * 
+	 * @param args The options of the replay.
+	 * 
+	 * @throws Exception If the trace cannot be read or written, or if the replay is interrupted.
+	 */
+	public static void main(String[] args) throws Exception {
+		Options options = new Options(args);
+		int depth = options.getInt("depth", 12);
+		ICommandRootNode<?> root = (ICommandRootNode<?>) (options.get("tree", "wide").equals("deep") ? Trees.deep(depth, 8)
+				: Trees.wide(options.getInt("width", 10000))).withCompletionCache(options.getInt("cache", 0)).build();
+
+		KeystrokeTrace trace;
+		String path = options.get("trace", null);
+		if (path != null)
+			trace = KeystrokeTrace.read(Paths.get(path));
+		else {
+			trace = KeystrokeTrace.synthetic(root, options.getInt("commands", 1000), options.getDouble("backspaces", 0.05), 42);
+			String record = options.get("record", null);
+			if (record != null)
+				trace.write(Paths.get(record));
+		}
+
+		int rate = options.getInt("rate", 10000);
+		KeystrokeReplay replay = new KeystrokeReplay(root, trace, options.getInt("threads", Runtime.getRuntime().availableProcessors()), rate);
+		System.out.println(String.format("Replaying %s events with %s threads at %s events per second", trace.size(), replay.threads, rate));
+		replay.run(Duration.ofSeconds(options.getInt("warmup", 5)));
+		System.out.println(replay.run(Duration.ofSeconds(options.getInt("duration", 10))));
+	}
+
+	private static class Options {
+		private List<String> args;
+
+		private Options(String[] args) {
+			this.args = List.of(args);
+		}
+
+		private String get(String name, String defaultValue) {
+			for (String arg : args)
+				if (arg.startsWith(name + "="))
+					return arg.substring(name.length() + 1);
+			return defaultValue;
+		}
+
+		private int getInt(String name, int defaultValue) {
+			String value = get(name, null);
+			return value == null ? defaultValue : Integer.parseInt(value);
+		}
+
+		private double getDouble(String name, double defaultValue) {
+			String value = get(name, null);
+			return value == null ? defaultValue : Double.parseDouble(value);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import fr.pederobien.commandtree.interfaces.INode;
+
+public class KeystrokeTrace {
+	private static final String COMPLETE_PREFIX = "C ", SUBMIT_PREFIX = "S ";
+
+	public enum Kind {
+		/**
+		 * The user typed or deleted a character, the completions of the current line are requested.
+		 */
+		COMPLETE,
+
+		/**
+		 * The user submitted the current line.
+		 */
+		SUBMIT
+	}
+
+	public static class Event {
+		private Kind kind;
+		private String line;
+
+		/**
+		 * Creates an event of a trace.
+		 * 
+		 * @param kind The kind of the event.
+		 * @param line The command line when the event occurred, without the command label.
+		 */
+		public Event(Kind kind, String line) {
+			this.kind = kind;
+			this.line = line;
+		}
+
+		/**
+		 * @return The kind of this event.
+		 */
+		public Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return The command line when this event occurred, without the command label.
+		 */
+		public String getLine() {
+			return line;
+		}
+
+		@Override
+		public String toString() {
+			return (kind == Kind.COMPLETE ? COMPLETE_PREFIX : SUBMIT_PREFIX) + line;
+		}
+	}
+
+	private List<Event> events;
+
+	/**
+	 * Creates a trace made of the given events.
+	 * 
+	 * @param events The events of the trace, in the order they occurred.
+	 */
+	public KeystrokeTrace(List<Event> events) {
+		if (events.isEmpty())
+			throw new IllegalArgumentException("A trace must contain at least one event");
+		this.events = Collections.unmodifiableList(new ArrayList<Event>(events));
+	}
+
+	/**
+	 * Reads a recorded trace. Each line of the file is an event: "C " followed by the command line for a completion request, "S "
+	 * followed by the command line for a submitted command. Empty lines and lines starting with "#" are ignored.
+	 * 
+	 * @param path The path of the file to read.
+	 * 
+	 * @return The trace read from the file.
+	 * 
+	 * @throws IOException If the file cannot be read or if a line does not correspond to an event.
+	 */
+	public static KeystrokeTrace read(Path path) throws IOException {
+		List<Event> events = new ArrayList<Event>();
+		int number = 0;
+		for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+			number++;
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+
+			if (line.startsWith(COMPLETE_PREFIX))
+				events.add(new Event(Kind.COMPLETE, line.substring(COMPLETE_PREFIX.length())));
+			else if (line.startsWith(SUBMIT_PREFIX))
+				events.add(new Event(Kind.SUBMIT, line.substring(SUBMIT_PREFIX.length())));
+			else
+				throw new IOException(String.format("Line %s of %s is not an event : %s", number, path, line));
+		}
+		return new KeystrokeTrace(events);
+	}
+
+	/**
+	 * Generates the trace of a user typing commands of the given tree. Each command is built by walking the tree from the root, each
+	 * of its characters is typed one after the other and requests the completions of the line. Sometimes the user makes a typing
+	 * error and deletes it with a backspace, which requests the completions of the line again. Finally the command is submitted.
+	 * 
+	 * @param root          The root of the tree the commands are generated from.
+	 * @param commands      The number of commands to type.
+	 * @param backspaceRate The probability that a typed character is a typing error.
+	 * @param seed          The seed of the random generator, the same seed always generates the same trace for a tree.
+	 * 
+	 * @return The generated trace.
+	 */
+	public static KeystrokeTrace synthetic(INode<?> root, int commands, double backspaceRate, long seed) {
+		Random random = new Random(seed);
+		List<Event> events = new ArrayList<Event>();
+		for (int i = 0; i < commands; i++) {
+			String command = randomCommand(root, random);
+			StringBuilder line = new StringBuilder(command.length() + 1);
+			for (int j = 0; j < command.length(); j++) {
+				if (random.nextDouble() < backspaceRate) {
+					line.append((char) ('a' + random.nextInt(26)));
+					events.add(new Event(Kind.COMPLETE, line.toString()));
+					line.setLength(line.length() - 1);
+					events.add(new Event(Kind.COMPLETE, line.toString()));
+				}
+
+				line.append(command.charAt(j));
+				events.add(new Event(Kind.COMPLETE, line.toString()));
+			}
+			events.add(new Event(Kind.SUBMIT, command));
+		}
+		return new KeystrokeTrace(events);
+	}
+
+	/**
+	 * Writes this trace in the format read by {@link #read(Path)}.
+	 * 
+	 * @param path The path of the file to write.
+	 * 
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void write(Path path) throws IOException {
+		List<String> lines = new ArrayList<String>(events.size());
+		for (Event event : events)
+			lines.add(event.toString());
+		Files.write(path, lines, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return The events of this trace, in the order they occurred.
+	 */
+	public List<Event> getEvents() {
+		return events;
+	}
+
+	/**
+	 * @return The number of events of this trace.
+	 */
+	public int size() {
+		return events.size();
+	}
+
+	/**
+	 * Walks the tree from the root, choosing an available child at random at each level. The walk stops on a node without children.
+	 * 
+	 * @param root   The root of the tree.
+	 * @param random The random generator.
+	 * 
+	 * @return The labels of the walked nodes, separated by a space.
+	 */
+	private static String randomCommand(INode<?> root, Random random) {
+		List<String> labels = new ArrayList<String>();
+		INode<?> node = root;
+		while (true) {
+			List<INode<?>> children = new ArrayList<INode<?>>();
+			for (INode<?> child : node.getChildren().values())
+				if (child.isAvailable())
+					children.add(child);
+
+			if (children.isEmpty())
+				return String.join(" ", labels);
+
+			node = children.get(random.nextInt(children.size()));
+			labels.add(node.getLabel());
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+import fr.pederobien.commandtree.interfaces.INode;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class QueryBenchmark {
+
+	@Param({ "10000" })
+	private int width;
+
+	@Param({ "12" })
+	private int depth;
+
+	private ICommandNode<String> wide, deep;
+	private INode<String> inner;
+	private String wideLabel;
+
+	@Setup
+	public void setup() {
+		wide = Trees.wide(width).build();
+		deep = Trees.deep(depth, 8).build();
+		wideLabel = Trees.label(width / 2);
+
+		// The node in the middle of the branch of the deep tree.
+		INode<String> node = deep;
+		for (int i = 0; i < depth / 2; i++)
+			node = node.getChildren().get(Trees.label(0));
+		inner = node;
+	}
+
+	@Benchmark
+	public List<? extends INode<String>> wideByLabel() {
+		return wide.getChildrenByLabel(wideLabel);
+	}
+
+	@Benchmark
+	public List<? extends INode<String>> deepByLabel() {
+		return deep.getChildrenByLabel(Trees.LEAF);
+	}
+
+	@Benchmark
+	public List<? extends INode<String>> innerByLabel() {
+		return inner.getChildrenByLabel(Trees.LEAF);
+	}
+
+	@Benchmark
+	public List<? extends INode<String>> allChildren() {
+		return deep.getChildrenByLabel("*");
+	}
+
+	@Benchmark
+	public INode<String> deepRoot() {
+		return inner.getRoot();
+	}
+}
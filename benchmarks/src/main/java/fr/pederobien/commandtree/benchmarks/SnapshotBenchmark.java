@@ -0,0 +1,66 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.pederobien.commandtree.impl.BindingRegistry;
+import fr.pederobien.commandtree.impl.ExplanationCodec;
+import fr.pederobien.commandtree.impl.Tree;
+import fr.pederobien.commandtree.impl.TreeSnapshot;
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+import fr.pederobien.commandtree.interfaces.ICommandRootNode;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SnapshotBenchmark {
+
+	@Param({ "100", "10000" })
+	private int width;
+
+	private BindingRegistry bindings;
+	private Path wide, deep;
+
+	@Setup
+	public void setup() throws IOException {
+		bindings = Trees.bindings();
+		wide = Files.createTempFile("wide", ".tree");
+		TreeSnapshot.write((ICommandRootNode<String>) Trees.wide(width).build(), wide, ExplanationCodec.string(), bindings);
+		deep = Files.createTempFile("deep", ".tree");
+		TreeSnapshot.write((ICommandRootNode<String>) Trees.deep(12, 8).build(), deep, ExplanationCodec.string(), bindings);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(wide);
+		Files.deleteIfExists(deep);
+	}
+
+	@Benchmark
+	public ICommandNode<String> wide() throws IOException {
+		return Tree.load(wide, ExplanationCodec.string(), bindings).build();
+	}
+
+	@Benchmark
+	public ICommandNode<String> deep() throws IOException {
+		return Tree.load(deep, ExplanationCodec.string(), bindings).build();
+	}
+}
@@ -0,0 +1,119 @@
+package fr.pederobien.commandtree.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import fr.pederobien.commandtree.impl.BindingRegistry;
+import fr.pederobien.commandtree.impl.Tree;
+import fr.pederobien.commandtree.impl.Tree.NodeBuilder;
+import fr.pederobien.commandtree.impl.Tree.TreeBuilder;
+import fr.pederobien.commandtree.interfaces.ICompletor;
+import fr.pederobien.commandtree.interfaces.IExecutor;
+
+public class Trees {
+	/**
+	 * The label of the node that ends the branch of a deep tree.
+	 */
+	public static final String LEAF = "leaf";
+
+	private static final List<String> COMPLETIONS = Arrays.asList("first", "second", "third");
+	private static final Supplier<Boolean> AVAILABLE = () -> true;
+	private static final IExecutor EXECUTOR = args -> true;
+	private static final ICompletor COMPLETOR = args -> COMPLETIONS;
+
+	private Trees() {
+	}
+
+	/**
+	 * Creates a tree whose root has the given number of children. Each child has an executor and a completor.
+	 * 
+	 * @param width The number of children of the root.
+	 * 
+	 * @return The builder of the tree.
+	 */
+	public static TreeBuilder<String> wide(int width) {
+		return wide(Tree.create("root", "The root of a wide tree", AVAILABLE), width);
+	}
+
+	/**
+	 * Appends the given number of children to the root of the given tree. Each child has an executor and a completor.
+	 * 
+	 * @param builder The builder of the tree.
+	 * @param width   The number of children of the root.
+	 * 
+	 * @return The builder of the tree.
+	 */
+	public static TreeBuilder<String> wide(TreeBuilder<String> builder, int width) {
+		for (int i = 0; i < width; i++)
+			builder.addNode(label(i), "The child " + i, AVAILABLE).withExecutor(EXECUTOR).withCompleter(COMPLETOR).append();
+		return builder;
+	}
+
+	/**
+	 * Creates a tree with a single branch of the given depth. Each node of the branch has some siblings with an executor, the branch
+	 * is made of the first child of each level and ends with a node labelled {@link #LEAF}.
+	 * 
+	 * @param depth    The number of nodes between the root and the leaf.
+	 * @param siblings The number of children of each node of the branch.
+	 * 
+	 * @return The builder of the tree.
+	 */
+	public static TreeBuilder<String> deep(int depth, int siblings) {
+		return deep(Tree.create("root", "The root of a deep tree", AVAILABLE), depth, siblings);
+	}
+
+	/**
+	 * Appends a single branch of the given depth to the root of the given tree, see {@link #deep(int, int)}.
+	 * 
+	 * @param builder  The builder of the tree.
+	 * @param depth    The number of nodes between the root and the leaf.
+	 * @param siblings The number of children of each node of the branch.
+	 * 
+	 * @return The builder of the tree.
+	 */
+	public static TreeBuilder<String> deep(TreeBuilder<String> builder, int depth, int siblings) {
+		NodeBuilder<String> parent = null;
+		for (int level = 0; level < depth; level++) {
+			for (int i = 1; i < siblings; i++)
+				add(builder, parent, label(i)).withExecutor(EXECUTOR).append();
+			parent = add(builder, parent, label(0)).append();
+		}
+		add(builder, parent, LEAF).withExecutor(EXECUTOR).withCompleter(COMPLETOR).append();
+		return builder;
+	}
+
+	/**
+	 * @return A registry of the availability, the executor and the completor of the nodes of the trees created by this class.
+	 */
+	public static BindingRegistry bindings() {
+		return new BindingRegistry().withAvailability("available", AVAILABLE).withExecutor("executor", EXECUTOR).withCompleter("completor", COMPLETOR);
+	}
+
+	/**
+	 * Get the arguments that reach the leaf of a tree created by {@link #deep(int, int)}.
+	 * 
+	 * @param depth The depth of the tree.
+	 * 
+	 * @return The arguments of the command.
+	 */
+	public static String[] deepCommand(int depth) {
+		String[] args = new String[depth + 1];
+		Arrays.fill(args, label(0));
+		args[depth] = LEAF;
+		return args;
+	}
+
+	/**
+	 * @param index The index of a child.
+	 * 
+	 * @return The label of the child, its index being padded with zeros to five digits so that a shorter prefix is not a label.
+	 */
+	public static String label(int index) {
+		return String.format("node%05d", index);
+	}
+
+	private static NodeBuilder<String> add(TreeBuilder<String> builder, NodeBuilder<String> parent, String label) {
+		return parent == null ? builder.addNode(label, "The node " + label, AVAILABLE) : parent.addNode(label, "The node " + label, AVAILABLE);
+	}
+}
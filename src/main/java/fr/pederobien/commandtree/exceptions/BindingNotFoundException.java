@@ -0,0 +1,32 @@
+package fr.pederobien.commandtree.exceptions;
+
+public class BindingNotFoundException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	private String kind, id;
+
+	/**
+	 * Creates an exception thrown when a snapshot refers to a binding that has not been registered.
+	 * 
+	 * @param kind The kind of the binding: availability, executor or completor.
+	 * @param id   The identifier of the binding.
+	 */
+	public BindingNotFoundException(String kind, String id) {
+		super("No " + kind + " registered for id " + id);
+		this.kind = kind;
+		this.id = id;
+	}
+
+	/**
+	 * @return The kind of the binding: availability, executor or completor.
+	 */
+	public String getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return The identifier of the binding.
+	 */
+	public String getId() {
+		return id;
+	}
+}
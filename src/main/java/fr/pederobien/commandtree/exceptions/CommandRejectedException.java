@@ -0,0 +1,51 @@
+package fr.pederobien.commandtree.exceptions;
+
+public class CommandRejectedException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public enum Reason {
+		/**
+		 * The maximum number of concurrent executions of the command has been reached.
+		 */
+		BULKHEAD_FULL,
+
+		/**
+		 * The command has been invoked more often than its rate limit allows.
+		 */
+		RATE_LIMITED
+	}
+
+	private String label;
+	private Reason reason;
+
+	/**
+	 * Creates an exception without stack trace, whose message is only built when it is requested.
+	 * 
+	 * @param label  The label of the rejected node.
+	 * @param reason The reason why the command has been rejected.
+	 */
+	public CommandRejectedException(String label, Reason reason) {
+		super(null, null, false, false);
+		this.label = label;
+		this.reason = reason;
+	}
+
+	/**
+	 * @return The label of the rejected node.
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * @return The reason why the command has been rejected.
+	 */
+	public Reason getReason() {
+		return reason;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The command " + label + " has been rejected (" + reason + ")";
+	}
+}
@@ -1,23 +1,62 @@
 package fr.pederobien.commandtree.exceptions;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
 
 public class NodeNotFoundException extends RuntimeException {
 	private static final long serialVersionUID = 1L;
 	private String label, notFoundArgument;
 	private String[] arguments;
-	private StringJoiner joiner;
+	private int position = -1;
+	private List<String> suggestions;
+	private transient IArgumentCursor cursor;
+	private transient Supplier<List<String>> suggestionsSupplier;
 
+	/**
+	 * Creates an exception without stack trace, whose message is only built when it is requested.
+	 * 
+	 * @param label            The label of the command.
+	 * @param notFoundArgument The not found argument.
+	 * @param arguments        The arguments given to the command.
+	 */
 	public NodeNotFoundException(String label, String notFoundArgument, String[] arguments) {
+		super(null, null, false, false);
 		this.label = label;
 		this.notFoundArgument = notFoundArgument;
 		this.arguments = arguments;
+	}
 
-		joiner = new StringJoiner(" ");
-		joiner.add("\nArgument \"" + getNotFoundArgument() + "\" not found for command : " + getLabel() + ".");
-		joiner.add("\nGiven arguments :");
-		for (String cmd : getArguments())
-			joiner.add(cmd);
+	/**
+	 * Creates an exception whose arguments are only extracted from the given cursor when they are requested.
+	 * 
+	 * @param label            The label of the command.
+	 * @param notFoundArgument The not found argument.
+	 * @param cursor           A cursor positioned on the not found argument. It should not be moved afterwards.
+	 */
+	public NodeNotFoundException(String label, String notFoundArgument, IArgumentCursor cursor) {
+		this(label, notFoundArgument, cursor, null);
+	}
+
+	/**
+	 * Creates an exception without stack trace, whose arguments, suggestions and message are only computed when they are requested.
+	 * 
+	 * @param label            The label of the command.
+	 * @param notFoundArgument The not found argument.
+	 * @param cursor           A cursor positioned on the not found argument. It should not be moved afterwards.
+	 * @param suggestions      The supplier of the labels close to the not found argument.
+	 */
+	public NodeNotFoundException(String label, String notFoundArgument, IArgumentCursor cursor, Supplier<List<String>> suggestions) {
+		super(null, null, false, false);
+		this.label = label;
+		this.notFoundArgument = notFoundArgument;
+		this.cursor = cursor;
+		this.suggestionsSupplier = suggestions;
 	}
 
 	/**
@@ -34,12 +73,47 @@ public class NodeNotFoundException extends RuntimeException {
 		return notFoundArgument;
 	}
 
+	/**
+	 * @return The position of the not found argument in the arguments given to the node that threw this exception, or -1 if it is
+	 *         unknown.
+	 */
+	public int getPosition() {
+		return cursor == null ? position : cursor.getOffset();
+	}
+
 	public String[] getArguments() {
+		if (arguments == null)
+			arguments = cursor == null ? new String[0] : cursor.toArray();
 		return arguments;
 	}
 
+	/**
+	 * @return The label of the available nodes close to the not found argument, sorted from the closest. The list is computed on the
+	 *         first call.
+	 */
+	public List<String> getSuggestions() {
+		if (suggestions == null)
+			suggestions = suggestionsSupplier == null ? new ArrayList<String>() : new ArrayList<String>(suggestionsSupplier.get());
+		return suggestions;
+	}
+
 	@Override
 	public String getMessage() {
+		StringJoiner joiner = new StringJoiner(" ");
+		joiner.add("\nArgument \"" + getNotFoundArgument() + "\" not found for command : " + getLabel() + ".");
+		if (!getSuggestions().isEmpty())
+			joiner.add("Did you mean : " + String.join(", ", getSuggestions()) + " ?");
+		joiner.add("\nGiven arguments :");
+		for (String cmd : getArguments())
+			joiner.add(cmd);
 		return joiner.toString();
 	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		// The cursor and the supplier are not serialized, the values they give are written instead.
+		getArguments();
+		getSuggestions();
+		position = getPosition();
+		out.defaultWriteObject();
+	}
 }
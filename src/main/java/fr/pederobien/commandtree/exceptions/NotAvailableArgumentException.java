@@ -4,11 +4,30 @@ public class NotAvailableArgumentException extends RuntimeException {
 	private static final long serialVersionUID = 1L;
 	private String argument;
 	private String label;
+	private int position;
 
+	/**
+	 * Creates an exception without stack trace, whose message is only built when it is requested.
+	 * 
+	 * @param label    The label of the node.
+	 * @param argument The not available argument.
+	 */
 	public NotAvailableArgumentException(String label, String argument) {
-		super("The argument \"" + argument + "\" associated to the command \"" + label + "\" is not available.");
+		this(label, argument, -1);
+	}
+
+	/**
+	 * Creates an exception without stack trace, whose message is only built when it is requested.
+	 * 
+	 * @param label    The label of the node.
+	 * @param argument The not available argument.
+	 * @param position The position of the not available argument in the arguments given to the node that threw this exception.
+	 */
+	public NotAvailableArgumentException(String label, String argument, int position) {
+		super(null, null, false, false);
 		this.label = label;
 		this.argument = argument;
+		this.position = position;
 	}
 
 	/**
@@ -24,4 +43,17 @@ public class NotAvailableArgumentException extends RuntimeException {
 	public String getArgument() {
 		return argument;
 	}
+
+	/**
+	 * @return The position of the not available argument in the arguments given to the node that threw this exception, or -1 if it
+	 *         is unknown.
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The argument \"" + argument + "\" associated to the command \"" + label + "\" is not available.";
+	}
 }
@@ -4,8 +4,13 @@ public class NotAvailableCommandException extends RuntimeException {
 	private static final long serialVersionUID = 1L;
 	private String label;
 
+	/**
+	 * Creates an exception without stack trace, whose message is only built when it is requested.
+	 * 
+	 * @param label The label of the node.
+	 */
 	public NotAvailableCommandException(String label) {
-		super("The command " + label + " is not available (yet ?)");
+		super(null, null, false, false);
 		this.label = label;
 	}
 
@@ -15,4 +20,9 @@ public class NotAvailableCommandException extends RuntimeException {
 	public String getLabel() {
 		return label;
 	}
+
+	@Override
+	public String getMessage() {
+		return "The command " + label + " is not available (yet ?)";
+	}
 }
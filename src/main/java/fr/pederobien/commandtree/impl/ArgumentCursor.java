@@ -0,0 +1,151 @@
+package fr.pederobien.commandtree.impl;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.ICompletor;
+import fr.pederobien.commandtree.interfaces.IExecutor;
+
+public class ArgumentCursor implements IArgumentCursor {
+	private static final ClassValue<Boolean> COMPLETOR_CURSOR = new CursorSupport("onTabComplete");
+	private static final ClassValue<Boolean> EXECUTOR_CURSOR = new CursorSupport("onCommand");
+
+	private String[] args;
+	private int offset;
+
+	/**
+	 * Creates a cursor on the given arguments, the cursor is positioned on the given offset. The array is not copied.
+	 * 
+	 * @param args   The arguments passed to the command.
+	 * @param offset The initial position of the cursor.
+	 */
+	public ArgumentCursor(String[] args, int offset) {
+		if (offset < 0 || offset > args.length)
+			throw new IndexOutOfBoundsException(String.format("Offset %s out of bounds for length %s", offset, args.length));
+
+		this.args = args;
+		this.offset = offset;
+	}
+
+	/**
+	 * Creates a cursor on the given arguments, the cursor is positioned on the first argument. The array is not copied.
+	 * 
+	 * @param args The arguments passed to the command.
+	 */
+	public ArgumentCursor(String[] args) {
+		this(args, 0);
+	}
+
+	@Override
+	public int length() {
+		return args.length - offset;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return offset == args.length;
+	}
+
+	@Override
+	public boolean isLast() {
+		return offset == args.length - 1;
+	}
+
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= length())
+			throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for length %s", index, length()));
+		return args[offset + index];
+	}
+
+	@Override
+	public String last() {
+		return get(length() - 1);
+	}
+
+	@Override
+	public IArgumentCursor next() {
+		if (offset == args.length)
+			throw new IndexOutOfBoundsException("No remaining argument");
+
+		offset++;
+		return this;
+	}
+
+	@Override
+	public int getOffset() {
+		return offset;
+	}
+
+	@Override
+	public IArgumentCursor copy() {
+		return new ArgumentCursor(args, offset);
+	}
+
+	@Override
+	public String[] toArray() {
+		return Arrays.copyOfRange(args, offset, args.length);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	/**
+	 * Requests a list of possible completions to the given completor. If the completor overrides
+	 * {@link ICompletor#onTabComplete(String[])} without overriding {@link ICompletor#onTabComplete(IArgumentCursor)}, the remaining
+	 * arguments are copied into an array in order to keep its behavior. Otherwise the cursor is given without copy.
+	 * 
+	 * @param completor The completor to call.
+	 * @param args      The cursor on the arguments passed to the command.
+	 * 
+	 * @return A List of possible completions for the final argument, or empty.
+	 */
+	public static List<String> complete(ICompletor completor, IArgumentCursor args) {
+		return COMPLETOR_CURSOR.get(completor.getClass()) ? completor.onTabComplete(args) : completor.onTabComplete(args.toArray());
+	}
+
+	/**
+	 * Executes the given executor. If the executor overrides {@link IExecutor#onCommand(String[])} without overriding
+	 * {@link IExecutor#onCommand(IArgumentCursor)}, the remaining arguments are copied into an array in order to keep its behavior.
+	 * Otherwise the cursor is given without copy.
+	 * 
+	 * @param executor The executor to call.
+	 * @param args     The cursor on the arguments passed to the command.
+	 * 
+	 * @return true if a valid command, otherwise false.
+	 */
+	public static boolean execute(IExecutor executor, IArgumentCursor args) {
+		return EXECUTOR_CURSOR.get(executor.getClass()) ? executor.onCommand(args) : executor.onCommand(args.toArray());
+	}
+
+	private static class CursorSupport extends ClassValue<Boolean> {
+		private String name;
+
+		/**
+		 * Creates a cache that indicates for each class if the cursor variant of the given method can be called instead of the array
+		 * variant.
+		 * 
+		 * @param name The name of the method.
+		 */
+		private CursorSupport(String name) {
+			this.name = name;
+		}
+
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				Method array = type.getMethod(name, String[].class);
+				Method cursor = type.getMethod(name, IArgumentCursor.class);
+
+				// The cursor variant is the most specific implementation, it is consistent with the array variant.
+				return array.getDeclaringClass().isAssignableFrom(cursor.getDeclaringClass());
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	}
+}
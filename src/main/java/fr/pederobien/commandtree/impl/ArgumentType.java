@@ -0,0 +1,482 @@
+package fr.pederobien.commandtree.impl;
+
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import fr.pederobien.commandtree.interfaces.IArgumentType;
+
+public abstract class ArgumentType<V> implements IArgumentType<V> {
+	private static final ArgumentType<Integer> INTEGER = new IntegerType(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	private static final ArgumentType<Double> DECIMAL = new DecimalType();
+	private static final ArgumentType<LocalTime> TIME = new TimeType();
+	private static final ArgumentType<Boolean> BOOLEAN = new BooleanType();
+	private static final ArgumentType<UUID> UUID_TYPE = new UUIDType();
+
+	private String name;
+
+	/**
+	 * Creates an argument type.
+	 * 
+	 * @param name The name of this type, displayed between angle brackets when the possible values cannot be listed.
+	 */
+	protected ArgumentType(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return A type whose values are signed decimal integers.
+	 */
+	public static ArgumentType<Integer> integer() {
+		return INTEGER;
+	}
+
+	/**
+	 * Get a type whose values are signed decimal integers in the given range.
+	 * 
+	 * @param min The minimum value, inclusive.
+	 * @param max The maximum value, inclusive.
+	 * 
+	 * @return A new integer type.
+	 */
+	public static ArgumentType<Integer> integer(int min, int max) {
+		if (min > max)
+			throw new IllegalArgumentException("The minimum value must be less than or equal to the maximum value");
+		return new IntegerType(min, max);
+	}
+
+	/**
+	 * @return A type whose values are signed decimal numbers, with an optional fraction and an optional exponent.
+	 */
+	public static ArgumentType<Double> decimal() {
+		return DECIMAL;
+	}
+
+	/**
+	 * @return A type whose values are times formatted according to {@link DateTimeFormatter#ISO_LOCAL_TIME}, such as "10:15:30".
+	 */
+	public static ArgumentType<LocalTime> time() {
+		return TIME;
+	}
+
+	/**
+	 * Get a type whose values are times formatted according to the given formatter. An argument is only resolved, at the cost of an
+	 * exception when it is not a valid time, once the formatter has successfully parsed it.
+	 * 
+	 * @param formatter The formatter used to parse the arguments.
+	 * 
+	 * @return A new time type.
+	 */
+	public static ArgumentType<LocalTime> time(DateTimeFormatter formatter) {
+		return new FormattedTimeType(formatter);
+	}
+
+	/**
+	 * @return A type whose values are "true" and "false", ignoring case.
+	 */
+	public static ArgumentType<Boolean> bool() {
+		return BOOLEAN;
+	}
+
+	/**
+	 * Get a type whose values are the names of the constants of the given enumeration, ignoring case.
+	 * 
+	 * @param type The class of the enumeration.
+	 * 
+	 * @return A new enumeration type.
+	 */
+	public static <E extends Enum<E>> ArgumentType<E> enumeration(Class<E> type) {
+		return new EnumType<E>(type);
+	}
+
+	/**
+	 * @return A type whose values are universally unique identifiers such as "123e4567-e89b-12d3-a456-426614174000".
+	 */
+	public static ArgumentType<UUID> uuid() {
+		return UUID_TYPE;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean isValid(String argument) {
+		return read(argument) != null;
+	}
+
+	@Override
+	public Optional<V> parse(String argument) {
+		return Optional.ofNullable(read(argument));
+	}
+
+	/**
+	 * {@inheritDoc} The default implementation returns the name of this type between angle brackets if the argument may become a
+	 * value of this type.
+	 */
+	@Override
+	public List<String> complete(String argument) {
+		List<String> completions = new ArrayList<String>();
+		if (isPartial(argument))
+			completions.add("<" + name + ">");
+		return completions;
+	}
+
+	/**
+	 * Parses the given argument without throwing an exception.
+	 * 
+	 * @param argument The argument to parse.
+	 * 
+	 * @return The parsed value, or null if the argument is not valid.
+	 */
+	protected abstract V read(String argument);
+
+	/**
+	 * Filter the given values in order to keep the ones that start with the given argument ignoring case.
+	 * 
+	 * @param argument The partial argument to complete.
+	 * @param values   The values to filter.
+	 * 
+	 * @return A new list that contains the matching values.
+	 */
+	protected static List<String> startWith(String argument, String... values) {
+		List<String> completions = new ArrayList<String>();
+		for (String value : values)
+			if (value.regionMatches(true, 0, argument, 0, argument.length()))
+				completions.add(value);
+		return completions;
+	}
+
+	private static class IntegerType extends ArgumentType<Integer> {
+		private static final long INVALID = Long.MIN_VALUE;
+		private int min, max;
+
+		private IntegerType(int min, int max) {
+			super("integer");
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		public boolean isValid(String argument) {
+			long value = scan(argument);
+			return value != INVALID && min <= value && value <= max;
+		}
+
+		@Override
+		public boolean isPartial(String argument) {
+			if (argument.isEmpty())
+				return true;
+			if (argument.length() == 1 && (argument.charAt(0) == '-' || argument.charAt(0) == '+'))
+				return argument.charAt(0) == '-' ? min < 0 : max >= 0;
+
+			long value = scan(argument);
+			// Appending digits moves the value away from zero.
+			return value != INVALID && !(value > 0 && value > max) && !(value < 0 && value < min);
+		}
+
+		@Override
+		protected Integer read(String argument) {
+			return isValid(argument) ? (int) scan(argument) : null;
+		}
+
+		/**
+		 * Parses the given argument as {@link Integer#parseInt(String)} does, without throwing an exception.
+		 * 
+		 * @param argument The argument to parse.
+		 * 
+		 * @return The parsed value, or {@link #INVALID} if the argument is not an integer.
+		 */
+		private static long scan(String argument) {
+			int length = argument.length();
+			if (length == 0)
+				return INVALID;
+
+			int index = 0;
+			boolean negative = false;
+			char first = argument.charAt(0);
+			if (first == '-' || first == '+') {
+				negative = first == '-';
+				if (++index == length)
+					return INVALID;
+			}
+
+			long value = 0;
+			for (; index < length; index++) {
+				char c = argument.charAt(index);
+				if (c < '0' || '9' < c)
+					return INVALID;
+				value = value * 10 + (c - '0');
+				if (value > (long) Integer.MAX_VALUE + 1)
+					return INVALID;
+			}
+
+			value = negative ? -value : value;
+			return value < Integer.MIN_VALUE || Integer.MAX_VALUE < value ? INVALID : value;
+		}
+	}
+
+	private static class DecimalType extends ArgumentType<Double> {
+		private static final int ERROR = -1;
+
+		private DecimalType() {
+			super("decimal");
+		}
+
+		@Override
+		public boolean isValid(String argument) {
+			int state = scan(argument);
+			return state == 2 || state == 3 || state == 5 || state == 8;
+		}
+
+		@Override
+		public boolean isPartial(String argument) {
+			return scan(argument) != ERROR;
+		}
+
+		@Override
+		protected Double read(String argument) {
+			// The argument matches a subset of the grammar of Double.parseDouble, that does not throw an exception.
+			return isValid(argument) ? Double.parseDouble(argument) : null;
+		}
+
+		/**
+		 * Run the automaton that recognizes <code>[+-]?(digits(.digits?)?|.digits)([eE][+-]?digits)?</code>.
+		 * 
+		 * @param argument The argument to scan.
+		 * 
+		 * @return The state of the automaton once the whole argument is read, or {@link #ERROR}.
+		 */
+		private static int scan(String argument) {
+			int state = 0;
+			for (int i = 0; i < argument.length() && state != ERROR; i++) {
+				char c = argument.charAt(i);
+				boolean digit = '0' <= c && c <= '9', sign = c == '-' || c == '+', dot = c == '.', exponent = c == 'e' || c == 'E';
+				switch (state) {
+				case 0:
+					state = sign ? 1 : digit ? 2 : dot ? 4 : ERROR;
+					break;
+				case 1:
+					state = digit ? 2 : dot ? 4 : ERROR;
+					break;
+				case 2:
+					state = digit ? 2 : dot ? 3 : exponent ? 6 : ERROR;
+					break;
+				case 3:
+				case 5:
+					state = digit ? 5 : exponent ? 6 : ERROR;
+					break;
+				case 4:
+					state = digit ? 5 : ERROR;
+					break;
+				case 6:
+					state = sign ? 7 : digit ? 8 : ERROR;
+					break;
+				case 7:
+				case 8:
+					state = digit ? 8 : ERROR;
+					break;
+				default:
+					state = ERROR;
+				}
+			}
+			return state;
+		}
+	}
+
+	private static class TimeType extends ArgumentType<LocalTime> {
+		// The longest time is "HH:mm:ss.nnnnnnnnn".
+		private static final int MAX_LENGTH = 18;
+
+		private TimeType() {
+			super("time");
+		}
+
+		@Override
+		public boolean isValid(String argument) {
+			int length = argument.length();
+			return isPartial(argument) && (length == 5 || length == 8 || length >= 10);
+		}
+
+		@Override
+		public boolean isPartial(String argument) {
+			int length = argument.length();
+			if (length > MAX_LENGTH)
+				return false;
+
+			for (int i = 0; i < length; i++) {
+				char c = argument.charAt(i);
+				if (i == 2 || i == 5 ? c != ':' : i == 8 ? c != '.' : c < '0' || '9' < c)
+					return false;
+			}
+
+			if (length > 0 && argument.charAt(0) > '2' || length > 1 && value(argument, 0) > 23)
+				return false;
+			if (length > 3 && argument.charAt(3) > '5')
+				return false;
+			return length <= 6 || argument.charAt(6) <= '5';
+		}
+
+		@Override
+		protected LocalTime read(String argument) {
+			if (!isValid(argument))
+				return null;
+
+			int length = argument.length(), second = length > 5 ? value(argument, 6) : 0, nano = 0;
+			for (int i = 9; i < MAX_LENGTH; i++)
+				nano = nano * 10 + (i < length ? argument.charAt(i) - '0' : 0);
+			return LocalTime.of(value(argument, 0), value(argument, 3), second, nano);
+		}
+
+		private static int value(String argument, int index) {
+			return (argument.charAt(index) - '0') * 10 + argument.charAt(index + 1) - '0';
+		}
+	}
+
+	private static class FormattedTimeType extends ArgumentType<LocalTime> {
+		private DateTimeFormatter formatter;
+
+		private FormattedTimeType(DateTimeFormatter formatter) {
+			super("time");
+			this.formatter = formatter;
+		}
+
+		@Override
+		public boolean isPartial(String argument) {
+			return argument.isEmpty() || isValid(argument);
+		}
+
+		@Override
+		protected LocalTime read(String argument) {
+			ParsePosition position = new ParsePosition(0);
+			if (formatter.parseUnresolved(argument, position) == null || position.getIndex() != argument.length())
+				return null;
+
+			try {
+				return LocalTime.parse(argument, formatter);
+			} catch (DateTimeException e) {
+				return null;
+			}
+		}
+	}
+
+	private static class BooleanType extends ArgumentType<Boolean> {
+
+		private BooleanType() {
+			super("boolean");
+		}
+
+		@Override
+		public boolean isPartial(String argument) {
+			return !complete(argument).isEmpty();
+		}
+
+		@Override
+		public List<String> complete(String argument) {
+			return startWith(argument, "false", "true");
+		}
+
+		@Override
+		protected Boolean read(String argument) {
+			if (argument.equalsIgnoreCase("true"))
+				return true;
+			if (argument.equalsIgnoreCase("false"))
+				return false;
+			return null;
+		}
+	}
+
+	private static class EnumType<E extends Enum<E>> extends ArgumentType<E> {
+		private E[] constants;
+		private String[] names;
+
+		private EnumType(Class<E> type) {
+			super(CompletionIndex.fold(type.getSimpleName()));
+			constants = type.getEnumConstants();
+			names = new String[constants.length];
+			for (int i = 0; i < constants.length; i++)
+				names[i] = CompletionIndex.fold(constants[i].name());
+		}
+
+		@Override
+		public boolean isPartial(String argument) {
+			for (String name : names)
+				if (name.regionMatches(true, 0, argument, 0, argument.length()))
+					return true;
+			return false;
+		}
+
+		@Override
+		public List<String> complete(String argument) {
+			return startWith(argument, names);
+		}
+
+		@Override
+		protected E read(String argument) {
+			for (int i = 0; i < names.length; i++)
+				if (names[i].equalsIgnoreCase(argument))
+					return constants[i];
+			return null;
+		}
+	}
+
+	private static class UUIDType extends ArgumentType<UUID> {
+		private static final int LENGTH = 36;
+
+		private UUIDType() {
+			super("uuid");
+		}
+
+		@Override
+		public boolean isValid(String argument) {
+			return argument.length() == LENGTH && isPartial(argument);
+		}
+
+		@Override
+		public boolean isPartial(String argument) {
+			if (argument.length() > LENGTH)
+				return false;
+
+			for (int i = 0; i < argument.length(); i++)
+				if (i == 8 || i == 13 || i == 18 || i == 23 ? argument.charAt(i) != '-' : hex(argument.charAt(i)) < 0)
+					return false;
+			return true;
+		}
+
+		@Override
+		protected UUID read(String argument) {
+			if (!isValid(argument))
+				return null;
+
+			long mostSignificantBits = 0, leastSignificantBits = 0;
+			int digits = 0;
+			for (int i = 0; i < LENGTH; i++) {
+				int digit = hex(argument.charAt(i));
+				if (digit < 0)
+					continue;
+
+				if (digits++ < 16)
+					mostSignificantBits = mostSignificantBits << 4 | digit;
+				else
+					leastSignificantBits = leastSignificantBits << 4 | digit;
+			}
+			return new UUID(mostSignificantBits, leastSignificantBits);
+		}
+
+		private static int hex(char c) {
+			if ('0' <= c && c <= '9')
+				return c - '0';
+			if ('a' <= c && c <= 'f')
+				return c - 'a' + 10;
+			if ('A' <= c && c <= 'F')
+				return c - 'A' + 10;
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package fr.pederobien.commandtree.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.pederobien.commandtree.interfaces.IAsyncDispatcher;
+import fr.pederobien.commandtree.interfaces.IAsyncExecutor;
+
+public class AsyncDispatcher implements IAsyncDispatcher, AutoCloseable {
+	private static final int DEFAULT_CAPACITY = 1024;
+	private static volatile AsyncDispatcher defaultDispatcher;
+
+	private ExecutorService service;
+	private Duration timeout;
+
+	/**
+	 * Creates a dispatcher that runs the asynchronous executors on the given service.
+	 * 
+	 * @param service The service used to run the executors.
+	 * @param timeout The default maximum duration of a command, or null if the commands do not expire by default.
+	 */
+	public AsyncDispatcher(ExecutorService service, Duration timeout) {
+		this.service = service;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Creates a dispatcher that runs each executor on a new virtual thread when the runtime supports them, otherwise on a bounded pool
+	 * of daemon threads.
+	 * 
+	 * @param timeout The default maximum duration of a command, or null if the commands do not expire by default.
+	 * 
+	 * @return A new dispatcher.
+	 */
+	public static AsyncDispatcher create(Duration timeout) {
+		ExecutorService service = newVirtualThreadExecutor();
+		if (service == null)
+			return bounded(Runtime.getRuntime().availableProcessors() * 4, DEFAULT_CAPACITY, timeout);
+		return new AsyncDispatcher(service, timeout);
+	}
+
+	/**
+	 * Creates a dispatcher that runs the executors on a pool of daemon threads. When all threads are busy and the queue is full, the
+	 * returned future fails with a {@link RejectedExecutionException}.
+	 * 
+	 * @param threads  The maximum number of threads.
+	 * @param capacity The maximum number of commands waiting for a thread.
+	 * @param timeout  The default maximum duration of a command, or null if the commands do not expire by default.
+	 * 
+	 * @return A new dispatcher.
+	 */
+	public static AsyncDispatcher bounded(int threads, int capacity, Duration timeout) {
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor service = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(capacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "command-tree-async-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		service.allowCoreThreadTimeOut(true);
+		return new AsyncDispatcher(service, timeout);
+	}
+
+	/**
+	 * @return The dispatcher used by the trees for which no dispatcher has been set. It is created on the first call, its commands do
+	 *         not expire by default.
+	 */
+	public static AsyncDispatcher getDefault() {
+		if (defaultDispatcher == null) {
+			synchronized (AsyncDispatcher.class) {
+				if (defaultDispatcher == null)
+					defaultDispatcher = create(null);
+			}
+		}
+		return defaultDispatcher;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> submit(IAsyncExecutor executor, String[] args, Duration timeout) {
+		CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+
+		Future<?> task;
+		try {
+			task = service.submit(() -> start(executor, args, result));
+		} catch (RejectedExecutionException e) {
+			result.completeExceptionally(e);
+			return result;
+		}
+
+		// Interrupts the executor when the command is cancelled or expires.
+		result.whenComplete((value, error) -> {
+			if (error != null)
+				task.cancel(true);
+		});
+
+		Duration limit = timeout == null ? this.timeout : timeout;
+		if (limit != null)
+			result.orTimeout(limit.toNanos(), TimeUnit.NANOSECONDS);
+		return result;
+	}
+
+	/**
+	 * @return The default maximum duration of a command, or null if the commands do not expire by default.
+	 */
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @return The maximum number of commands that can wait for a thread of this dispatcher, {@link Integer#MAX_VALUE} if a thread is
+	 *         started for each command or if the number of waiting commands is not bounded.
+	 */
+	public int getCapacity() {
+		if (!(service instanceof ThreadPoolExecutor))
+			return Integer.MAX_VALUE;
+
+		BlockingQueue<Runnable> queue = ((ThreadPoolExecutor) service).getQueue();
+		return (int) Math.min(Integer.MAX_VALUE, (long) queue.size() + queue.remainingCapacity());
+	}
+
+	/**
+	 * Stops accepting commands. The commands already submitted are still executed.
+	 */
+	@Override
+	public void close() {
+		service.shutdown();
+	}
+
+	private static void start(IAsyncExecutor executor, String[] args, CompletableFuture<Boolean> result) {
+		// The command has been cancelled or has expired while waiting for a thread.
+		if (result.isDone())
+			return;
+
+		try {
+			CompletableFuture<Boolean> future = executor.onCommandAsync(args);
+			result.whenComplete((value, error) -> {
+				if (error != null)
+					future.cancel(true);
+			});
+			future.whenComplete((value, error) -> {
+				if (error == null)
+					result.complete(value);
+				else
+					result.completeExceptionally(error);
+			});
+		} catch (Throwable e) {
+			result.completeExceptionally(e);
+		}
+	}
+
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// The runtime does not support virtual threads.
+			return null;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.pederobien.commandtree.events.NodeAvailableChangePostEvent;
+import fr.pederobien.commandtree.events.NodeEvent;
+import fr.pederobien.commandtree.interfaces.INode;
+import fr.pederobien.commandtree.interfaces.INodeEventDispatcher;
+import fr.pederobien.utils.event.EventManager;
+
+public class AsyncNodeEventDispatcher implements INodeEventDispatcher, AutoCloseable {
+	private static final NodeEvent STOP = new NodeEvent(null);
+	private static final long POLL_MILLIS = 100;
+
+	public enum OverflowPolicy {
+		/**
+		 * The thread that throws the event waits until the queue has a free slot. If the dispatcher thread has stopped, the event is
+		 * given to the event manager by the thread that throws the event.
+		 */
+		BLOCK,
+
+		/**
+		 * The event is given to the event manager by the thread that throws the event. It is then dispatched before the events still
+		 * waiting in the queue, so the listeners may observe the events out of order while the queue is full.
+		 */
+		CALLER_RUNS,
+
+		/**
+		 * The event is discarded.
+		 */
+		DROP
+	}
+
+	private BlockingQueue<NodeEvent> queue;
+	private OverflowPolicy policy;
+	private Map<INode<?>, Integer> flips;
+	private LongAdder dropped;
+	private Thread thread;
+	private volatile boolean closed;
+
+	/**
+	 * Creates a dispatcher that gives the node events to the event manager from a dedicated thread. Several availability changes of
+	 * the same node that occur before the first one has been dispatched are coalesced: one event is dispatched if the number of changes
+	 * is odd, none if it is even since the availability is back to its previous value.
+	 * 
+	 * @param capacity The maximum number of events waiting to be dispatched.
+	 * @param policy   The behavior when the queue is full.
+	 */
+	public AsyncNodeEventDispatcher(int capacity, OverflowPolicy policy) {
+		queue = new ArrayBlockingQueue<NodeEvent>(capacity);
+		this.policy = policy;
+		flips = new ConcurrentHashMap<INode<?>, Integer>();
+		dropped = new LongAdder();
+
+		thread = new Thread(() -> run(), "command-tree-events");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void dispatch(NodeEvent event) {
+		if (closed) {
+			EventManager.callEvent(event);
+			return;
+		}
+
+		if (event instanceof NodeAvailableChangePostEvent) {
+			// An event for this node is already waiting to be dispatched.
+			if (flips.merge(event.getNode(), 1, Integer::sum) > 1)
+				return;
+		}
+
+		boolean queued = queue.offer(event);
+		if (!queued) {
+			switch (policy) {
+			case BLOCK:
+				try {
+					queued = put(event);
+					if (!queued)
+						call(event);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					discard(event);
+				}
+				break;
+			case CALLER_RUNS:
+				call(event);
+				break;
+			case DROP:
+				discard(event);
+				break;
+			}
+		}
+
+		// The dispatcher has been closed concurrently and its thread stopped before taking the event.
+		if (queued && closed && !thread.isAlive())
+			drain();
+	}
+
+	/**
+	 * @return The number of events waiting to be dispatched.
+	 */
+	public int getPendingCount() {
+		return queue.size();
+	}
+
+	/**
+	 * @return The number of events discarded because the queue was full.
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Dispatches the events waiting in the queue and stops the dispatcher thread. The events queued by a concurrent dispatch after the
+	 * thread has stopped are dispatched by the calling thread, the events thrown afterwards are dispatched synchronously. If the
+	 * calling thread is interrupted while waiting, its interrupt status is set again before returning. If the dispatcher thread has
+	 * died, the events left in the queue are dispatched by the calling thread.
+	 */
+	@Override
+	public void close() {
+		if (closed)
+			return;
+
+		closed = true;
+		boolean interrupted = false;
+		while (true) {
+			try {
+				put(STOP);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		drain();
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Waits until the queue has a free slot for the given event, as long as the dispatcher thread is alive. A dead thread never frees
+	 * a slot, so waiting without checking it could block forever.
+	 * 
+	 * @param event The event to queue.
+	 * 
+	 * @return True if the event has been queued, false if the dispatcher thread has stopped.
+	 * 
+	 * @throws InterruptedException If the calling thread is interrupted while waiting.
+	 */
+	private boolean put(NodeEvent event) throws InterruptedException {
+		while (thread.isAlive())
+			if (queue.offer(event, POLL_MILLIS, TimeUnit.MILLISECONDS))
+				return true;
+		return false;
+	}
+
+	private void run() {
+		while (true) {
+			NodeEvent event;
+			try {
+				event = queue.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+
+			if (event == STOP)
+				return;
+
+			try {
+				call(event);
+			} catch (RuntimeException e) {
+				// A failing listener should not stop the dispatch of the next events.
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+			}
+		}
+	}
+
+	private void call(NodeEvent event) {
+		if (event instanceof NodeAvailableChangePostEvent) {
+			Integer count = flips.remove(event.getNode());
+			if (count != null && count % 2 == 0)
+				return;
+		}
+		EventManager.callEvent(event);
+	}
+
+	/**
+	 * Dispatches, on the calling thread, the events left in the queue once the dispatcher thread has stopped.
+	 */
+	private void drain() {
+		NodeEvent event;
+		while ((event = queue.poll()) != null)
+			if (event != STOP)
+				call(event);
+	}
+
+	private void discard(NodeEvent event) {
+		if (event instanceof NodeAvailableChangePostEvent)
+			flips.remove(event.getNode());
+		dropped.increment();
+	}
+}
@@ -0,0 +1,120 @@
+package fr.pederobien.commandtree.impl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.pederobien.commandtree.interfaces.IAvailabilityCache;
+
+public class AvailabilityCache implements IAvailabilityCache {
+	/**
+	 * The deadline of an availability that is only invalidated by a new epoch.
+	 */
+	public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	private Duration timeToLive;
+	private long timeToLiveNanos;
+	private AtomicLong epoch;
+
+	/**
+	 * Creates a cache policy for the availability of the nodes of a tree. The value returned by the supplier of a node is kept until
+	 * the time to live has elapsed or until a new epoch is started.
+	 * 
+	 * @param timeToLive The duration during which an availability is kept, or null to keep it until the next epoch.
+	 */
+	public AvailabilityCache(Duration timeToLive) {
+		if (timeToLive != null && (timeToLive.isNegative() || timeToLive.isZero()))
+			throw new IllegalArgumentException("The time to live must be strictly positive");
+
+		this.timeToLive = timeToLive;
+		timeToLiveNanos = timeToLive == null ? NO_DEADLINE : saturatedNanos(timeToLive);
+		epoch = new AtomicLong();
+	}
+
+	@Override
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	@Override
+	public long getEpoch() {
+		return epoch.get();
+	}
+
+	@Override
+	public void invalidate() {
+		epoch.incrementAndGet();
+	}
+
+	/**
+	 * @return The deadline of an availability evaluated now, in the time scale of {@link System#nanoTime()}.
+	 */
+	public long getDeadline() {
+		return timeToLiveNanos == NO_DEADLINE ? NO_DEADLINE : System.nanoTime() + timeToLiveNanos;
+	}
+
+	/**
+	 * Captures the epoch and the deadline of an availability about to be evaluated. They must be captured before the supplier is
+	 * called, so that an epoch started during the call invalidates the value it returns.
+	 * 
+	 * @return The stamp to complete with the value returned by the supplier.
+	 */
+	Stamp stamp() {
+		return new Stamp(this, epoch.get(), getDeadline(), false);
+	}
+
+	/**
+	 * Check if an availability can still be used. An availability stamped by another cache, for example the cache replaced by this
+	 * one, is never used.
+	 * 
+	 * @param stamp The stamp of the availability, or null if it has never been evaluated.
+	 * 
+	 * @return True if the availability can be used, false if the supplier should be evaluated again.
+	 */
+	boolean isValid(Stamp stamp) {
+		if (stamp == null || stamp.cache != this || stamp.epoch != epoch.get())
+			return false;
+		return stamp.deadline == NO_DEADLINE || System.nanoTime() - stamp.deadline < 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("AvailabilityCache_{timeToLive=%s, epoch=%s}", timeToLive, getEpoch());
+	}
+
+	static class Stamp {
+		private final AvailabilityCache cache;
+		private final long epoch, deadline;
+		private final boolean available;
+
+		private Stamp(AvailabilityCache cache, long epoch, long deadline, boolean available) {
+			this.cache = cache;
+			this.epoch = epoch;
+			this.deadline = deadline;
+			this.available = available;
+		}
+
+		/**
+		 * @param available The value returned by the supplier.
+		 * 
+		 * @return A stamp with the cache, the epoch and the deadline of this stamp, holding the given availability.
+		 */
+		Stamp with(boolean available) {
+			return new Stamp(cache, epoch, deadline, available);
+		}
+
+		/**
+		 * @return The availability held by this stamp.
+		 */
+		boolean isAvailable() {
+			return available;
+		}
+	}
+
+	private static long saturatedNanos(Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (ArithmeticException e) {
+			return NO_DEADLINE;
+		}
+	}
+}
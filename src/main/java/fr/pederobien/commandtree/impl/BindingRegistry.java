@@ -0,0 +1,156 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import fr.pederobien.commandtree.exceptions.BindingNotFoundException;
+import fr.pederobien.commandtree.interfaces.ICompletor;
+import fr.pederobien.commandtree.interfaces.IExecutor;
+
+public class BindingRegistry {
+	private Bindings<Supplier<Boolean>> availabilities;
+	private Bindings<IExecutor> executors;
+	private Bindings<ICompletor> completors;
+
+	/**
+	 * Creates an empty registry. The same instance should be used to write a snapshot of a tree and to load it, so that the bindings
+	 * of the nodes are found by identifier.
+	 */
+	public BindingRegistry() {
+		availabilities = new Bindings<Supplier<Boolean>>("availability");
+		executors = new Bindings<IExecutor>("executor");
+		completors = new Bindings<ICompletor>("completor");
+	}
+
+	/**
+	 * Register the given availability. The nodes built with this instance are written with the given identifier.
+	 * 
+	 * @param id           The identifier of the availability.
+	 * @param availability The supplier that computes the availability of the nodes.
+	 * 
+	 * @return This registry.
+	 */
+	public BindingRegistry withAvailability(String id, Supplier<Boolean> availability) {
+		availabilities.put(id, availability);
+		return this;
+	}
+
+	/**
+	 * Register the given executor. The nodes built with this instance are written with the given identifier.
+	 * 
+	 * @param id       The identifier of the executor.
+	 * @param executor The action to perform when method onCommand is called.
+	 * 
+	 * @return This registry.
+	 */
+	public BindingRegistry withExecutor(String id, IExecutor executor) {
+		executors.put(id, executor);
+		return this;
+	}
+
+	/**
+	 * Register the given completor. The nodes built with this instance are written with the given identifier.
+	 * 
+	 * @param id        The identifier of the completor.
+	 * @param completor The action to perform when method onTabComplete is called.
+	 * 
+	 * @return This registry.
+	 */
+	public BindingRegistry withCompleter(String id, ICompletor completor) {
+		completors.put(id, completor);
+		return this;
+	}
+
+	/**
+	 * @param id The identifier of an availability.
+	 * 
+	 * @return The availability registered for the given identifier.
+	 * 
+	 * @throws BindingNotFoundException If no availability is registered for the identifier.
+	 */
+	public Supplier<Boolean> getAvailability(String id) {
+		return availabilities.get(id);
+	}
+
+	/**
+	 * @param id The identifier of an executor.
+	 * 
+	 * @return The executor registered for the given identifier.
+	 * 
+	 * @throws BindingNotFoundException If no executor is registered for the identifier.
+	 */
+	public IExecutor getExecutor(String id) {
+		return executors.get(id);
+	}
+
+	/**
+	 * @param id The identifier of a completor.
+	 * 
+	 * @return The completor registered for the given identifier.
+	 * 
+	 * @throws BindingNotFoundException If no completor is registered for the identifier.
+	 */
+	public ICompletor getCompletor(String id) {
+		return completors.get(id);
+	}
+
+	/**
+	 * @param availability A supplier that computes the availability of nodes.
+	 * 
+	 * @return The identifier of the given availability, or null if it has not been registered.
+	 */
+	String availabilityId(Supplier<Boolean> availability) {
+		return availabilities.idOf(availability);
+	}
+
+	/**
+	 * @param executor An action to perform when method onCommand is called.
+	 * 
+	 * @return The identifier of the given executor, or null if it has not been registered.
+	 */
+	String executorId(IExecutor executor) {
+		return executors.idOf(executor);
+	}
+
+	/**
+	 * @param completor An action to perform when method onTabComplete is called.
+	 * 
+	 * @return The identifier of the given completor, or null if it has not been registered.
+	 */
+	String completorId(ICompletor completor) {
+		return completors.idOf(completor);
+	}
+
+	private static class Bindings<B> {
+		private String kind;
+		private Map<String, B> bindings;
+		// The bindings are compared by identity, lambdas do not override equals.
+		private Map<B, String> ids;
+
+		private Bindings(String kind) {
+			this.kind = kind;
+			bindings = new HashMap<String, B>();
+			ids = new IdentityHashMap<B, String>();
+		}
+
+		private synchronized void put(String id, B binding) {
+			B previous = bindings.put(id, binding);
+			if (previous != null)
+				ids.remove(previous);
+			ids.put(binding, id);
+		}
+
+		private synchronized B get(String id) {
+			B binding = bindings.get(id);
+			if (binding == null)
+				throw new BindingNotFoundException(kind, id);
+			return binding;
+		}
+
+		private synchronized String idOf(B binding) {
+			return ids.get(binding);
+		}
+	}
+}
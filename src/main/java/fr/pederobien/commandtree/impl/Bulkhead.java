@@ -0,0 +1,101 @@
+package fr.pederobien.commandtree.impl;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Bulkhead {
+	private int maxConcurrent, maxQueued;
+	private long maxWait;
+	private Semaphore permits;
+	private AtomicInteger queued;
+	private LongAdder rejected;
+
+	/**
+	 * Creates a bulkhead that limits the number of concurrent executions of the commands it protects. A bulkhead can be shared by
+	 * several nodes.
+	 * 
+	 * @param maxConcurrent The maximum number of commands executed at the same time.
+	 * @param maxQueued     The maximum number of commands waiting for an execution slot, 0 to reject a command as soon as all slots
+	 *                          are used.
+	 * @param maxWait       The maximum duration a command waits for an execution slot before being rejected.
+	 */
+	public Bulkhead(int maxConcurrent, int maxQueued, Duration maxWait) {
+		if (maxConcurrent < 1)
+			throw new IllegalArgumentException("The maximum number of concurrent executions must be strictly positive");
+
+		this.maxConcurrent = maxConcurrent;
+		this.maxQueued = maxQueued;
+		this.maxWait = maxWait.toNanos();
+		permits = new Semaphore(maxConcurrent);
+		queued = new AtomicInteger();
+		rejected = new LongAdder();
+	}
+
+	/**
+	 * Creates a bulkhead that rejects a command as soon as the given number of commands are executed at the same time.
+	 * 
+	 * @param maxConcurrent The maximum number of commands executed at the same time.
+	 */
+	public Bulkhead(int maxConcurrent) {
+		this(maxConcurrent, 0, Duration.ZERO);
+	}
+
+	/**
+	 * Try to get an execution slot. When all slots are used, the calling thread waits for a slot if the queue of this bulkhead is not
+	 * full.
+	 * 
+	 * @return True if a slot has been acquired, it must be released by {@link #release()}, false if the command is rejected.
+	 */
+	public boolean tryAcquire() {
+		if (permits.tryAcquire())
+			return true;
+
+		if (maxQueued > 0) {
+			if (queued.incrementAndGet() <= maxQueued) {
+				try {
+					if (permits.tryAcquire(maxWait, TimeUnit.NANOSECONDS))
+						return true;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					queued.decrementAndGet();
+				}
+			} else
+				queued.decrementAndGet();
+		}
+
+		rejected.increment();
+		return false;
+	}
+
+	/**
+	 * Release an execution slot acquired by {@link #tryAcquire()}.
+	 */
+	public void release() {
+		permits.release();
+	}
+
+	/**
+	 * @return The maximum number of commands executed at the same time.
+	 */
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	/**
+	 * @return The number of commands currently executed.
+	 */
+	public int getConcurrent() {
+		return maxConcurrent - permits.availablePermits();
+	}
+
+	/**
+	 * @return The number of commands rejected by this bulkhead.
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+}
@@ -0,0 +1,242 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+final class ChildMap<V> extends AbstractMap<String, V> {
+	/**
+	 * The number of children above which the children are stored in a hash table.
+	 */
+	static final int INLINE_CAPACITY = 8;
+
+	private static final ChildMap<Object> EMPTY = new ChildMap<Object>();
+
+	// The labels and the children are stored in turn, in insertion order.
+	private Object[] entries;
+	private int size;
+	private LinkedHashMap<String, V> large;
+	private EntrySet entrySet;
+
+	/**
+	 * Creates an empty map of children. The storage is only allocated when a first child is added.
+	 */
+	ChildMap() {
+	}
+
+	/**
+	 * Creates a map with the same children as the given map, in the same order.
+	 * 
+	 * @param source The map to copy.
+	 */
+	ChildMap(ChildMap<V> source) {
+		if (source.large != null && source.large.size() > INLINE_CAPACITY)
+			large = new LinkedHashMap<String, V>(source.large);
+		else if (source.large != null)
+			putAll(source.large);
+		else if (source.size > 0) {
+			entries = Arrays.copyOf(source.entries, 2 * source.size);
+			size = source.size;
+		}
+	}
+
+	/**
+	 * @return The map shared by the nodes without children. It cannot be modified, see {@link #mutable()}.
+	 */
+	@SuppressWarnings("unchecked")
+	static <V> ChildMap<V> empty() {
+		return (ChildMap<V>) EMPTY;
+	}
+
+	/**
+	 * @return This map, or a new empty map if this map is the one shared by the nodes without children.
+	 */
+	ChildMap<V> mutable() {
+		return this == EMPTY ? new ChildMap<V>() : this;
+	}
+
+	@Override
+	public int size() {
+		return large != null ? large.size() : size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return large != null ? large.containsKey(key) : indexOf(key) >= 0;
+	}
+
+	@Override
+	public V get(Object key) {
+		if (large != null)
+			return large.get(key);
+
+		int index = indexOf(key);
+		return index < 0 ? null : value(index);
+	}
+
+	@Override
+	public V put(String key, V value) {
+		if (this == EMPTY)
+			throw new UnsupportedOperationException("The shared empty map cannot be modified");
+
+		if (large != null)
+			return large.put(key, value);
+
+		int index = indexOf(key);
+		if (index >= 0) {
+			V old = value(index);
+			entries[2 * index + 1] = value;
+			return old;
+		}
+
+		if (size == INLINE_CAPACITY) {
+			promote();
+			return large.put(key, value);
+		}
+
+		if (entries == null)
+			entries = new Object[4];
+		else if (2 * size == entries.length)
+			entries = Arrays.copyOf(entries, Math.min(2 * entries.length, 2 * INLINE_CAPACITY));
+
+		entries[2 * size] = key;
+		entries[2 * size + 1] = value;
+		size++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (large != null)
+			return large.remove(key);
+
+		int index = indexOf(key);
+		if (index < 0)
+			return null;
+
+		V old = value(index);
+		removeAt(index);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		entries = null;
+		size = 0;
+		large = null;
+	}
+
+	@Override
+	public Set<Entry<String, V>> entrySet() {
+		if (entrySet == null)
+			entrySet = new EntrySet();
+		return entrySet;
+	}
+
+	/**
+	 * @param key The label of a child.
+	 * 
+	 * @return The index of the child in the inline storage, or -1 if there is no child for the label.
+	 */
+	private int indexOf(Object key) {
+		for (int i = 0; i < size; i++)
+			if (entries[2 * i].equals(key))
+				return i;
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V value(int index) {
+		return (V) entries[2 * index + 1];
+	}
+
+	private void removeAt(int index) {
+		System.arraycopy(entries, 2 * index + 2, entries, 2 * index, 2 * (size - index - 1));
+		size--;
+		entries[2 * size] = null;
+		entries[2 * size + 1] = null;
+		if (size == 0)
+			entries = null;
+	}
+
+	/**
+	 * Moves the children from the inline storage to a hash table, keeping their order.
+	 */
+	private void promote() {
+		large = new LinkedHashMap<String, V>(4 * INLINE_CAPACITY);
+		for (int i = 0; i < size; i++)
+			large.put((String) entries[2 * i], value(i));
+		entries = null;
+		size = 0;
+	}
+
+	private class EntrySet extends AbstractSet<Entry<String, V>> {
+
+		@Override
+		public Iterator<Entry<String, V>> iterator() {
+			return large != null ? large.entrySet().iterator() : new InlineIterator();
+		}
+
+		@Override
+		public int size() {
+			return ChildMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			ChildMap.this.clear();
+		}
+	}
+
+	private class InlineIterator implements Iterator<Entry<String, V>> {
+		private int next, last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Entry<String, V> next() {
+			if (next >= size)
+				throw new NoSuchElementException();
+
+			last = next++;
+			return new InlineEntry((String) entries[2 * last], value(last));
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0)
+				throw new IllegalStateException();
+
+			removeAt(last);
+			next = last;
+			last = -1;
+		}
+	}
+
+	private class InlineEntry extends SimpleEntry<String, V> {
+		private static final long serialVersionUID = 1L;
+
+		private InlineEntry(String key, V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+}
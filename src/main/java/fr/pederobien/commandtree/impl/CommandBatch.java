@@ -0,0 +1,174 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.IAsyncDispatcher;
+import fr.pederobien.commandtree.interfaces.IAsyncExecutor;
+import fr.pederobien.commandtree.interfaces.ICommandRootNode.BatchOrder;
+import fr.pederobien.commandtree.interfaces.IDispatchResult;
+import fr.pederobien.commandtree.interfaces.IExecutor;
+
+class CommandBatch<T> {
+	private static final String[] NO_ARGUMENTS = new String[0];
+
+	private CommandRootNode<T> root;
+
+	/**
+	 * Creates a batch that executes several command lines against the given root.
+	 * 
+	 * @param root The root of the tree.
+	 */
+	CommandBatch(CommandRootNode<T> root) {
+		this.root = root;
+	}
+
+	/**
+	 * Resolves each line against the state of the tree left by the previous commands, just before executing it, as
+	 * {@link CommandRootNode#onCommand(CharSequence)} does. A batch executed in parallel by a thread of the dispatcher of the tree, for
+	 * example by an asynchronous executor, is executed sequentially: waiting for other threads of the dispatcher may deadlock a
+	 * saturated pool.
+	 * 
+	 * @param lines The raw command lines, without the command label.
+	 * @param order The order in which the commands are executed.
+	 * 
+	 * @return The result of each line, in the order of the lines.
+	 */
+	List<IDispatchResult> execute(List<? extends CharSequence> lines, BatchOrder order) {
+		if (order == BatchOrder.PARALLEL && Tree.SetupNode.isExecuting())
+			order = BatchOrder.SEQUENTIAL;
+
+		IDispatchResult[] results = new IDispatchResult[lines.size()];
+		List<CompletableFuture<Void>> running = new ArrayList<CompletableFuture<Void>>();
+		int window = order == BatchOrder.PARALLEL ? getWindow() : 0;
+		for (int i = 0; i < results.length; i++) {
+			Target target = resolve(lines.get(i));
+
+			// Independent commands run concurrently until a command that is not independent is reached.
+			if (order == BatchOrder.PARALLEL && target.result == null && target.isIndependent()) {
+				throttle(running, window);
+				int index = i;
+				running.add(target.executeAsync().thenAccept(result -> results[index] = result));
+				continue;
+			}
+
+			if (!running.isEmpty()) {
+				// The line is resolved again once the commands executed before it have completed.
+				await(running);
+				target = resolve(lines.get(i));
+			}
+
+			if (target.result != null) {
+				results[i] = target.result;
+				continue;
+			}
+
+			results[i] = target.execute();
+		}
+		await(running);
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * @param line The raw command line, without the command label.
+	 * 
+	 * @return The command to execute for the given line, or its result if it is known without execution.
+	 */
+	private Target resolve(CharSequence line) {
+		IArgumentCursor args = new CommandLineCursor(line, false);
+		CommandRoute<T> route = CommandRoute.walk(root, args, null);
+		if (route.getExecutor() == null)
+			return new Target(route.dispatch(args));
+		return new Target(route.getExecutor(), route.getLabel(), args);
+	}
+
+	/**
+	 * @return The maximum number of independent commands submitted to the dispatcher of the tree at the same time, so that a bounded
+	 *         dispatcher does not reject them.
+	 */
+	private int getWindow() {
+		IAsyncDispatcher dispatcher = root.getAsyncDispatcher();
+		return dispatcher instanceof AsyncDispatcher ? Math.max(1, ((AsyncDispatcher) dispatcher).getCapacity()) : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Waits until less than the given number of commands are running.
+	 * 
+	 * @param running The commands submitted to the dispatcher.
+	 * @param window  The maximum number of commands running at the same time.
+	 */
+	private static void throttle(List<CompletableFuture<Void>> running, int window) {
+		while (running.size() >= window) {
+			CompletableFuture.anyOf(running.toArray(new CompletableFuture<?>[running.size()])).join();
+			running.removeIf(future -> future.isDone());
+		}
+	}
+
+	private static void await(List<CompletableFuture<Void>> running) {
+		if (running.isEmpty())
+			return;
+
+		CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[running.size()])).join();
+		running.clear();
+	}
+
+	private class Target {
+		private DispatchResult result;
+		private IExecutor executor;
+		private String label;
+		private IArgumentCursor args;
+
+		/**
+		 * Creates a target whose result is known without execution.
+		 * 
+		 * @param result The result of the line.
+		 */
+		private Target(DispatchResult result) {
+			this.result = result;
+		}
+
+		/**
+		 * Creates a target to execute.
+		 * 
+		 * @param executor The executor of the reached node.
+		 * @param label    The label of the reached node.
+		 * @param args     A cursor on the arguments given to the executor.
+		 */
+		private Target(IExecutor executor, String label, IArgumentCursor args) {
+			this.executor = executor;
+			this.label = label;
+			this.args = args;
+		}
+
+		private boolean isIndependent() {
+			return executor instanceof Tree.SetupNode<?> && ((Tree.SetupNode<?>) executor).isIndependent();
+		}
+
+		private DispatchResult execute() {
+			return DispatchResult.execute(executor, label, args);
+		}
+
+		@SuppressWarnings("unchecked")
+		private CompletableFuture<DispatchResult> executeAsync() {
+			int position = args.getOffset();
+			Tree.SetupNode<T> node = (Tree.SetupNode<T>) executor;
+			if (node.hasAsyncExecutor())
+				return node.onCommandAsync(args).handle((success, error) -> error == null ? DispatchResult.executed(label, position, success) : toResult(position, error));
+
+			// The synchronous executor is run by the dispatcher of the tree, its result is kept aside.
+			DispatchResult[] result = new DispatchResult[1];
+			IAsyncExecutor task = ignored -> {
+				result[0] = Tree.SetupNode.runExecuting(this::execute);
+				return CompletableFuture.completedFuture(result[0].isSuccess());
+			};
+			return root.getAsyncDispatcher().submit(task, NO_ARGUMENTS, null).handle((success, error) -> error == null ? result[0] : toResult(position, error));
+		}
+
+		private DispatchResult toResult(int position, Throwable error) {
+			return DispatchResult.of(label, position, error);
+		}
+	}
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
 import fr.pederobien.commandtree.interfaces.ICommandHelperNode;
 import fr.pederobien.commandtree.interfaces.INode;
 
@@ -36,16 +37,25 @@ public class CommandHelperNode<T> extends HelperNode<T> implements ICommandHelpe
 
 	@Override
 	public List<String> onTabComplete(String[] args) {
+		return onTabComplete(new ArgumentCursor(args));
+	}
+
+	@Override
+	public List<String> onTabComplete(IArgumentCursor args) {
 		return onTabComplete(getSource(), args);
 	}
 
 	@Override
 	public boolean onCommand(String[] args) {
+		return onCommand(new ArgumentCursor(args));
+	}
+
+	@Override
+	public boolean onCommand(IArgumentCursor args) {
 		try {
-			INode<T> child = getSource().getChildren().get(args[0]);
-			for (int i = 1; i < args.length; i++)
-				if (child != null)
-					child = child.getChildren().get(args[i]);
+			INode<T> child = getSource().getChildren().get(args.get(0));
+			for (args.next(); child != null && !args.isEmpty(); args.next())
+				child = child.getChildren().get(args.get(0));
 
 			display(child);
 			child.getChildren().values().stream().filter(node -> node.isAvailable()).forEach(node -> display(node));
@@ -71,15 +81,12 @@ public class CommandHelperNode<T> extends HelperNode<T> implements ICommandHelpe
 		displayExplanation(node);
 	}
 
-	private List<String> onTabComplete(INode<T> source, String... args) {
-		switch (args.length) {
-		case 0:
+	private List<String> onTabComplete(INode<T> source, IArgumentCursor args) {
+		if (args.isEmpty())
 			return new ArrayList<String>();
-		default:
-			String label = args[0];
-			INode<T> node = source.getChildren().get(label);
-			return node == null ? filter(source.getChildren().values().stream(), args).collect(Collectors.toList()) : onTabComplete(node, extract(args, 1));
-		}
+
+		INode<T> node = source.getChildren().get(args.get(0));
+		return node == null ? complete(source, args.last()) : onTabComplete(node, args.next());
 	}
 
 	/**
@@ -0,0 +1,241 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+
+public class CommandLineCursor implements IArgumentCursor {
+	private static final char ESCAPE = '\\';
+	private static final char DOUBLE_QUOTE = '"';
+	private static final char SIMPLE_QUOTE = '\'';
+	private static final int UNKNOWN = -2;
+
+	private CharSequence line;
+	private boolean completion;
+	private int position;
+	private int offset;
+	private String current;
+	private int currentEnd;
+
+	/**
+	 * Creates a cursor that splits lazily the given command line into arguments. Arguments are separated by whitespaces, a quoted
+	 * argument (using simple or double quotes) can contain whitespaces and the character '\' escapes the next character. An argument
+	 * is only converted into a String when it is requested.
+	 * 
+	 * @param line       The command line, without the command label.
+	 * @param completion True if the line is going to be completed, in that case a trailing whitespace is considered as the beginning
+	 *                   of an empty partial argument.
+	 */
+	public CommandLineCursor(CharSequence line, boolean completion) {
+		this(line, completion, 0, 0);
+	}
+
+	/**
+	 * Creates a cursor that splits lazily the given command line into arguments.
+	 * 
+	 * @param line       The command line.
+	 * @param completion True if a trailing whitespace should be considered as the beginning of an empty partial argument.
+	 * @param position   The index of the character from which the remaining arguments begin.
+	 * @param offset     The number of arguments before the given position.
+	 */
+	private CommandLineCursor(CharSequence line, boolean completion, int position, int offset) {
+		this.line = line;
+		this.completion = completion;
+		this.position = position;
+		this.offset = offset;
+		this.currentEnd = UNKNOWN;
+	}
+
+	@Override
+	public int length() {
+		int length = 0;
+		for (int from = position; (from = tokenEnd(from)) >= 0;)
+			length++;
+		return length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return currentEnd() < 0;
+	}
+
+	@Override
+	public boolean isLast() {
+		int end = currentEnd();
+		return end >= 0 && tokenEnd(end) < 0;
+	}
+
+	@Override
+	public String get(int index) {
+		if (index == 0) {
+			if (current == null) {
+				int end = currentEnd();
+				if (end < 0)
+					throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for length 0", index));
+				current = token(position, end);
+			}
+			return current;
+		}
+
+		if (index < 0)
+			throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for length %s", index, length()));
+
+		int from = position;
+		for (int i = 0; i < index; i++) {
+			from = tokenEnd(from);
+			if (from < 0)
+				throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for length %s", index, i));
+		}
+
+		int end = tokenEnd(from);
+		if (end < 0)
+			throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for length %s", index, index));
+		return token(from, end);
+	}
+
+	@Override
+	public String last() {
+		int from = position, last = -1;
+		for (int end; (end = tokenEnd(from)) >= 0; from = end)
+			last = from;
+
+		if (last < 0)
+			throw new IndexOutOfBoundsException("No remaining argument");
+		return token(last, tokenEnd(last));
+	}
+
+	@Override
+	public IArgumentCursor next() {
+		int end = currentEnd();
+		if (end < 0)
+			throw new IndexOutOfBoundsException("No remaining argument");
+
+		position = end;
+		offset++;
+		current = null;
+		currentEnd = UNKNOWN;
+		return this;
+	}
+
+	@Override
+	public int getOffset() {
+		return offset;
+	}
+
+	@Override
+	public IArgumentCursor copy() {
+		return new CommandLineCursor(line, completion, position, offset);
+	}
+
+	@Override
+	public String[] toArray() {
+		List<String> tokens = new ArrayList<String>();
+		for (int from = position, end; (end = tokenEnd(from)) >= 0; from = end)
+			tokens.add(token(from, end));
+		return tokens.toArray(new String[tokens.size()]);
+	}
+
+	@Override
+	public String toString() {
+		return line.subSequence(Math.min(position, line.length()), line.length()).toString();
+	}
+
+	/**
+	 * @return The index of the character just after the argument at the current position, or -1 if there is no more argument. The
+	 *         index is computed once for each position.
+	 */
+	private int currentEnd() {
+		if (currentEnd == UNKNOWN)
+			currentEnd = tokenEnd(position);
+		return currentEnd;
+	}
+
+	/**
+	 * Finds the end of the argument that begins after the given position. When the line ends with a whitespace and this cursor is
+	 * used for completion, the trailing empty argument ends after the end of the line.
+	 * 
+	 * @param from The index of the character from which the argument is searched.
+	 * 
+	 * @return The index of the character just after the argument, or -1 if there is no more argument.
+	 */
+	private int tokenEnd(int from) {
+		int length = line.length();
+		if (from > length)
+			return -1;
+
+		int start = skipWhitespaces(from);
+		if (start == length) {
+			// The trailing empty argument exists if the line is empty or ends with a whitespace.
+			boolean trailing = completion && (start > from || length == 0);
+			return trailing ? length + 1 : -1;
+		}
+
+		char quote = 0;
+		int index = start;
+		for (; index < length; index++) {
+			char c = line.charAt(index);
+			if (c == ESCAPE)
+				index++;
+			else if (quote != 0) {
+				if (c == quote)
+					quote = 0;
+			} else if (c == DOUBLE_QUOTE || c == SIMPLE_QUOTE)
+				quote = c;
+			else if (Character.isWhitespace(c))
+				break;
+		}
+		return Math.min(index, length);
+	}
+
+	/**
+	 * Creates the argument that ends at the given index. The quotes and escape characters are removed.
+	 * 
+	 * @param from The index of the character from which the argument is searched.
+	 * @param end  The index of the character just after the argument.
+	 * 
+	 * @return The argument, without quotes and escape characters.
+	 */
+	private String token(int from, int end) {
+		if (end > line.length())
+			return "";
+
+		int start = skipWhitespaces(from);
+		boolean plain = true;
+		for (int index = start; index < end && plain; index++) {
+			char c = line.charAt(index);
+			plain = c != ESCAPE && c != DOUBLE_QUOTE && c != SIMPLE_QUOTE;
+		}
+
+		if (plain)
+			return line.subSequence(start, end).toString();
+
+		StringBuilder builder = new StringBuilder(end - start);
+		char quote = 0;
+		for (int index = start; index < end; index++) {
+			char c = line.charAt(index);
+			if (c == ESCAPE) {
+				if (++index < end)
+					builder.append(line.charAt(index));
+			} else if (quote != 0 && c == quote)
+				quote = 0;
+			else if (quote == 0 && (c == DOUBLE_QUOTE || c == SIMPLE_QUOTE))
+				quote = c;
+			else
+				builder.append(c);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * @param from The index of the first character to check.
+	 * 
+	 * @return The index of the first character that is not a whitespace.
+	 */
+	private int skipWhitespaces(int from) {
+		int index = from;
+		while (index < line.length() && Character.isWhitespace(line.charAt(index)))
+			index++;
+		return index;
+	}
+}
@@ -0,0 +1,162 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.pederobien.commandtree.exceptions.CommandRejectedException;
+import fr.pederobien.commandtree.exceptions.NodeNotFoundException;
+import fr.pederobien.commandtree.exceptions.NotAvailableArgumentException;
+import fr.pederobien.commandtree.exceptions.NotAvailableCommandException;
+import fr.pederobien.commandtree.interfaces.ICommandMetrics;
+import fr.pederobien.commandtree.interfaces.IDispatchResult.Status;
+import fr.pederobien.commandtree.interfaces.IMetricsSnapshot.INodeMetrics;
+import fr.pederobien.commandtree.interfaces.INode;
+
+public class CommandMetrics implements ICommandMetrics {
+	private static final Status[] STATUSES = Status.values();
+
+	private INode<?> root;
+	private Map<INode<?>, Counters> counters;
+
+	/**
+	 * Creates the counters of the commands and completions of a tree. The counters of a node are created the first time a command or
+	 * a completion stops on it, and dropped when the node is removed from the tree. A command or a completion that completes once its
+	 * node has been removed is not recorded.
+	 * 
+	 * @param root The root of the tree.
+	 */
+	public CommandMetrics(INode<?> root) {
+		this.root = root;
+		counters = new ConcurrentHashMap<INode<?>, Counters>();
+	}
+
+	/**
+	 * Records a command that stopped on the given node.
+	 * 
+	 * @param node   The node that executed or rejected the command.
+	 * @param status The status of the command.
+	 * @param nanos  The duration of the command, in nanoseconds.
+	 */
+	public void recordCommand(INode<?> node, Status status, long nanos) {
+		Counters counters = get(node);
+		if (counters == null)
+			return;
+
+		counters.statuses[status.ordinal()].increment();
+		counters.command.record(nanos);
+	}
+
+	/**
+	 * Records a completion that stopped on the given node.
+	 * 
+	 * @param node  The node that proposed the completions.
+	 * @param nanos The duration of the completion, in nanoseconds.
+	 */
+	public void recordCompletion(INode<?> node, long nanos) {
+		Counters counters = get(node);
+		if (counters != null)
+			counters.completion.record(nanos);
+	}
+
+	/**
+	 * Drops the counters of the given node and of its descendants. It is called when a subtree has been removed from the tree, so that
+	 * the counters do not keep the removed nodes.
+	 * 
+	 * @param node The root of the removed subtree.
+	 */
+	public void remove(INode<?> node) {
+		Deque<INode<?>> pending = new ArrayDeque<INode<?>>();
+		pending.push(node);
+		while (!pending.isEmpty()) {
+			INode<?> current = pending.pop();
+			counters.remove(current);
+			for (INode<?> child : current.getChildren().values())
+				pending.push(child);
+		}
+	}
+
+	@Override
+	public MetricsSnapshot snapshot() {
+		List<INodeMetrics> nodes = new ArrayList<INodeMetrics>(counters.size());
+		for (Map.Entry<INode<?>, Counters> entry : counters.entrySet()) {
+			Counters counters = entry.getValue();
+			long[] statuses = new long[STATUSES.length];
+			for (int i = 0; i < statuses.length; i++)
+				statuses[i] = counters.statuses[i].sum();
+
+			String path = String.join(" ", entry.getKey().getPath().getLabels());
+			nodes.add(new MetricsSnapshot.NodeMetrics(path, statuses, counters.command.snapshot(), counters.completion.snapshot()));
+		}
+		nodes.sort((first, second) -> first.getPath().compareTo(second.getPath()));
+		return new MetricsSnapshot(nodes);
+	}
+
+	@Override
+	public void reset() {
+		counters.clear();
+	}
+
+	/**
+	 * Get the status under which a command that threw the given exception is counted.
+	 * 
+	 * @param error The exception thrown while the command was dispatched or executed.
+	 * 
+	 * @return The status of the command.
+	 */
+	static Status statusOf(Throwable error) {
+		if (error instanceof CompletionException && error.getCause() != null)
+			error = error.getCause();
+		if (error instanceof NodeNotFoundException)
+			return Status.NOT_FOUND;
+		if (error instanceof NotAvailableArgumentException || error instanceof NotAvailableCommandException)
+			return Status.NOT_AVAILABLE;
+		if (error instanceof CommandRejectedException)
+			return Status.REJECTED;
+		return Status.FAILED;
+	}
+
+	/**
+	 * @param node The node a command or a completion stopped on.
+	 * 
+	 * @return The counters of the given node, created if needed, or null if the node is no longer attached to the tree.
+	 */
+	private Counters get(INode<?> node) {
+		Counters result = counters.get(node);
+		if (result != null || !isAttached(node))
+			return result;
+
+		result = counters.computeIfAbsent(node, key -> new Counters());
+		// The subtree of the node may have been removed, and its counters dropped, since the check.
+		if (!isAttached(node))
+			counters.remove(node, result);
+		return result;
+	}
+
+	/**
+	 * @param node The node to check.
+	 * 
+	 * @return True if the given node belongs to the tree of these metrics.
+	 */
+	private boolean isAttached(INode<?> node) {
+		return node.getPath().getRoot() == root.getPath().getRoot();
+	}
+
+	private static class Counters {
+		private LongAdder[] statuses;
+		private LatencyHistogram command, completion;
+
+		private Counters() {
+			statuses = new LongAdder[STATUSES.length];
+			for (int i = 0; i < statuses.length; i++)
+				statuses[i] = new LongAdder();
+			command = new LatencyHistogram();
+			completion = new LatencyHistogram();
+		}
+	}
+}
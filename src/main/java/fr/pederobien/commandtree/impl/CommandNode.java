@@ -6,7 +6,11 @@ import java.util.function.Supplier;
 
 import fr.pederobien.commandtree.exceptions.NodeNotFoundException;
 import fr.pederobien.commandtree.exceptions.NotAvailableArgumentException;
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
 import fr.pederobien.commandtree.interfaces.ICommandNode;
+import fr.pederobien.commandtree.interfaces.IDispatchListener;
+import fr.pederobien.commandtree.interfaces.IDispatchListener.Phase;
+import fr.pederobien.commandtree.interfaces.IDispatchResult.Status;
 import fr.pederobien.commandtree.interfaces.INode;
 
 public class CommandNode<T> extends Node<T> implements ICommandNode<T> {
@@ -29,49 +33,76 @@ public class CommandNode<T> extends Node<T> implements ICommandNode<T> {
 	 * @param explanation The explanation associated to this node.
 	 */
 	protected CommandNode(String label, T explanation) {
-		this(label, explanation, () -> false);
+		this(label, explanation, NEVER_AVAILABLE);
 	}
 
 	@Override
 	public List<String> onTabComplete(String[] args) {
+		return onTabComplete(new ArgumentCursor(args));
+	}
+
+	@Override
+	public List<String> onTabComplete(IArgumentCursor args) {
 		if (!isAvailable())
 			return emptyList();
 
 		try {
-			String argument = args[0];
+			String argument = args.get(0);
 			ICommandNode<T> node = getChildren().get(argument);
 
 			// Node not recognized, display all available children nodes.
 			if (node == null)
-				return filter(getAvailableChildren().map(e -> e.getLabel()), argument);
+				return completeChildren(argument);
+
+			IDispatchListener listener = getDispatchListener();
+			if (listener != null)
+				listener.onVisit(node, argument, Phase.COMPLETION);
 
 			// Node not available, display nothing.
 			if (!node.isAvailable())
 				return emptyList();
 
-			return node.onTabComplete(extract(args, 1));
+			return ArgumentCursor.complete(node, args.next());
 		} catch (IndexOutOfBoundsException e) {
-			// When args is empty -> args[0] throw an IndexOutOfBoundsException
+			// When args is empty -> args.get(0) throw an IndexOutOfBoundsException
 			return emptyList();
 		}
 	}
 
 	@Override
 	public boolean onCommand(String[] args) {
+		return onCommand(new ArgumentCursor(args));
+	}
+
+	@Override
+	public boolean onCommand(IArgumentCursor args) {
+		IDispatchListener listener = getDispatchListener();
 		try {
-			String argument = args[0];
+			String argument = args.get(0);
 			ICommandNode<T> node = getChildren().get(argument);
 
-			if (node == null)
-				throw new NodeNotFoundException(getLabel(), argument, args);
+			if (node == null) {
+				if (listener != null)
+					listener.onStop(this, argument, Status.NOT_FOUND);
+				throw new NodeNotFoundException(getLabel(), argument, args.copy(), () -> suggestChildren(argument));
+			}
 
-			if (!node.isAvailable())
-				throw new NotAvailableArgumentException(node.getLabel(), argument);
+			if (listener != null)
+				listener.onVisit(node, argument, Phase.COMMAND);
 
-			return node.onCommand(extract(args, 1));
+			if (!node.isAvailable()) {
+				if (listener != null)
+					listener.onStop(node, argument, Status.NOT_AVAILABLE);
+				throw new NotAvailableArgumentException(node.getLabel(), argument, args.getOffset());
+			}
+
+			return ArgumentCursor.execute(node, args.next());
 		} catch (IndexOutOfBoundsException e) {
 			// Do nothing
 		}
+
+		if (listener != null)
+			listener.onStop(this, null, Status.SUCCESS);
 		return true;
 	}
 
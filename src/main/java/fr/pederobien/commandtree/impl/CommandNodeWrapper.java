@@ -2,6 +2,7 @@ package fr.pederobien.commandtree.impl;
 
 import java.util.List;
 
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
 import fr.pederobien.commandtree.interfaces.ICommandNode;
 
 public class CommandNodeWrapper<T> extends NodeWrapper<T> implements ICommandNode<T> {
@@ -17,8 +18,25 @@ public class CommandNodeWrapper<T> extends NodeWrapper<T> implements ICommandNod
 		return source.onTabComplete(args);
 	}
 
+	@Override
+	public List<String> onTabComplete(IArgumentCursor args) {
+		return ArgumentCursor.complete(source, args);
+	}
+
 	@Override
 	public boolean onCommand(String[] args) {
 		return source.onCommand(args);
 	}
+
+	@Override
+	public boolean onCommand(IArgumentCursor args) {
+		return ArgumentCursor.execute(source, args);
+	}
+
+	/**
+	 * @return The node wrapped by this wrapper.
+	 */
+	protected ICommandNode<T> getSource() {
+		return source;
+	}
 }
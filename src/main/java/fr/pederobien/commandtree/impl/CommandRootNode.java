@@ -1,21 +1,29 @@
 package fr.pederobien.commandtree.impl;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 
-import fr.pederobien.commandtree.exceptions.NodeNotFoundException;
-import fr.pederobien.commandtree.exceptions.NotAvailableArgumentException;
-import fr.pederobien.commandtree.exceptions.NotAvailableCommandException;
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.IAsyncDispatcher;
 import fr.pederobien.commandtree.interfaces.ICommandHelperNode;
 import fr.pederobien.commandtree.interfaces.ICommandNode;
 import fr.pederobien.commandtree.interfaces.ICommandRootNode;
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
+import fr.pederobien.commandtree.interfaces.IDispatchListener;
+import fr.pederobien.commandtree.interfaces.IDispatchListener.Phase;
+import fr.pederobien.commandtree.interfaces.IDispatchResult;
+import fr.pederobien.commandtree.interfaces.IDispatchResult.Status;
+import fr.pederobien.commandtree.interfaces.IDispatchTable;
 import fr.pederobien.commandtree.interfaces.IHelperNode;
 import fr.pederobien.commandtree.interfaces.INode;
+import fr.pederobien.commandtree.interfaces.INodeEventDispatcher;
 
 public class CommandRootNode<T> extends RootNode<T> implements ICommandRootNode<T> {
+	private volatile CommandMetrics metrics;
 
 	/**
 	 * Creates a root node based on the given parameters with an empty list of aliases.
@@ -62,7 +70,7 @@ public class CommandRootNode<T> extends RootNode<T> implements ICommandRootNode<
 	 * @param isAvailable True if this node is available, false otherwise.
 	 */
 	public CommandRootNode(String label, T explanation) {
-		this(label, explanation, () -> false);
+		this(label, explanation, NEVER_AVAILABLE);
 	}
 
 	@Override
@@ -70,58 +78,366 @@ public class CommandRootNode<T> extends RootNode<T> implements ICommandRootNode<
 		return export(() -> new CommandNode<T>(getLabel(), getExplanation(), () -> isAvailable()));
 	}
 
+	@Override
+	public IDispatchTable<T> compile() {
+		return new DispatchTable<T>(this);
+	}
+
 	@Override
 	public List<String> onTabComplete(String[] args) {
+		return onTabComplete(new ArgumentCursor(args));
+	}
+
+	@Override
+	public FrozenCommandNode<T> freeze() {
+		return new FrozenCommandNode<T>(this);
+	}
+
+	@Override
+	public List<String> onTabComplete(CharSequence line) {
+		return onTabComplete(new CommandLineCursor(line, true));
+	}
+
+	@Override
+	public List<String> onTabComplete(IArgumentCursor args) {
+		IDispatchListener listener = getDispatchListener();
+		if (listener == null)
+			return onTabComplete(args, null);
+
+		long start = System.nanoTime();
+		listener.onStart(this, Phase.COMPLETION);
+		try {
+			return onTabComplete(args, listener);
+		} finally {
+			listener.onEnd(this, Phase.COMPLETION, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Completes the arguments and notifies the given listener of the nodes that are visited.
+	 * 
+	 * @param args     A cursor on the arguments to complete.
+	 * @param listener The listener of this tree, or null.
+	 * 
+	 * @return The list of possible completions.
+	 */
+	private List<String> onTabComplete(IArgumentCursor args, IDispatchListener listener) {
 		if (!isAvailable())
 			return emptyList();
 
 		String label;
 		try {
-			label = args[0];
+			label = args.get(0);
 		} catch (IndexOutOfBoundsException e) {
 			return emptyList();
 		}
 
 		if (label.equals(getHelper().getLabel()))
-			return getHelper().onTabComplete(args);
+			return ArgumentCursor.complete(getHelper(), args);
 
+		CommandMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
 		ICommandNode<T> node = getChildren().get(label);
 
 		// Node not recognized, display all available children nodes.
-		if (node == null)
-			return filter(concat(getAvailableChildren().map(e -> e.getLabel()), Stream.of(getHelper().getLabel())), label);
+		if (node == null) {
+			List<String> labels = completeChildren(label);
+			String helper = getHelper().getLabel();
+			if (getCompletionMatcher().matches(helper, CompletionIndex.fold(helper), CompletionIndex.fold(label)))
+				labels.add(helper);
+			if (metrics != null)
+				metrics.recordCompletion(this, System.nanoTime() - start);
+			return labels;
+		}
+
+		if (listener != null)
+			listener.onVisit(node, label, Phase.COMPLETION);
 
 		// Node not available, display nothing.
 		if (!node.isAvailable())
 			return emptyList();
 
-		return node.onTabComplete(extract(args, 1));
+		if (metrics == null)
+			return ArgumentCursor.complete(node, args.next());
+		return onTabComplete(node, args.next(), metrics, listener, start);
+	}
+
+	/**
+	 * Completes the arguments with the given node and records the duration of the completion. The nodes that only forward the
+	 * completion to their children are walked directly so that the duration is recorded on the node that proposes the completions.
+	 * 
+	 * @param node     The node reached by the root.
+	 * @param args     A cursor on the arguments to give to the node.
+	 * @param metrics  The metrics of this tree.
+	 * @param listener The listener of this tree, or null.
+	 * @param start    The time at which the completion started, in the time scale of {@link System#nanoTime()}.
+	 * 
+	 * @return The list of possible completions.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<String> onTabComplete(ICommandNode<T> node, IArgumentCursor args, CommandMetrics metrics, IDispatchListener listener, long start) {
+		while (!args.isEmpty() && !args.isLast() && Routes.isCompletionRoute(node)) {
+			String argument = args.get(0);
+			ICommandNode<T> child = (ICommandNode<T>) node.getChildren().get(argument);
+			if (child == null)
+				break;
+
+			if (listener != null)
+				listener.onVisit(child, argument, Phase.COMPLETION);
+			if (!child.isAvailable()) {
+				metrics.recordCompletion(node, System.nanoTime() - start);
+				return emptyList();
+			}
+
+			node = child;
+			args.next();
+		}
+
+		try {
+			return ArgumentCursor.complete(node, args);
+		} finally {
+			metrics.recordCompletion(node, System.nanoTime() - start);
+		}
 	}
 
 	@Override
 	public boolean onCommand(String[] args) {
-		if (!isAvailable())
-			throw new NotAvailableCommandException(getLabel());
+		return onCommand(new ArgumentCursor(args));
+	}
 
-		String label;
+	@Override
+	public boolean onCommand(CharSequence line) {
+		return onCommand(new CommandLineCursor(line, false));
+	}
+
+	@Override
+	public boolean onCommand(IArgumentCursor args) {
+		IDispatchListener listener = getDispatchListener();
+		if (listener == null)
+			return onCommand(args, null);
+
+		long start = System.nanoTime();
+		listener.onStart(this, Phase.COMMAND);
 		try {
-			label = args[0];
-		} catch (IndexOutOfBoundsException e) {
-			return false;
+			return onCommand(args, listener);
+		} finally {
+			listener.onEnd(this, Phase.COMMAND, System.nanoTime() - start);
 		}
+	}
 
-		if (label.equals(getHelper().getLabel()))
-			return getHelper().onCommand(extract(args, 1));
+	/**
+	 * Executes the command and notifies the given listener of the nodes that are visited. When the metrics are enabled, the status and
+	 * the duration of the command are recorded on the node it stopped on.
+	 * 
+	 * @param args     A cursor on the arguments passed to the command.
+	 * @param listener The listener of this tree, or null.
+	 * 
+	 * @return true if a valid command, otherwise false.
+	 */
+	private boolean onCommand(IArgumentCursor args, IDispatchListener listener) {
+		CommandMetrics metrics = this.metrics;
+		if (metrics == null)
+			return CommandRoute.walk(this, args, listener).execute(args);
 
-		ICommandNode<T> node = getChildren().get(label);
+		long start = System.nanoTime();
+		CommandRoute<T> route = CommandRoute.walk(this, args, listener);
+		Status status = Status.FAILED;
+		try {
+			boolean success = route.execute(args);
+			status = success ? Status.SUCCESS : Status.FAILED;
+			return success;
+		} catch (RuntimeException e) {
+			status = CommandMetrics.statusOf(e);
+			throw e;
+		} finally {
+			route.record(metrics, status, start);
+		}
+	}
 
-		if (node == null)
-			throw new NodeNotFoundException(getLabel(), label, args);
+	@Override
+	public DispatchResult dispatch(String[] args) {
+		return dispatch(new ArgumentCursor(args));
+	}
 
-		if (!node.isAvailable())
-			throw new NotAvailableArgumentException(node.getLabel(), label);
+	@Override
+	public DispatchResult dispatch(CharSequence line) {
+		return dispatch(new CommandLineCursor(line, false));
+	}
 
-		return node.onCommand(extract(args, 1));
+	/**
+	 * Walks the tree as {@link #onCommand(IArgumentCursor)} does, without throwing an exception. The nodes that only forward the
+	 * command to their children are walked directly, the other nodes are executed.
+	 * 
+	 * @param args A cursor on the arguments passed to the command.
+	 * 
+	 * @return The result of the dispatch.
+	 */
+	protected DispatchResult dispatch(IArgumentCursor args) {
+		IDispatchListener listener = getDispatchListener();
+		if (listener == null)
+			return dispatch(args, null);
+
+		long start = System.nanoTime();
+		listener.onStart(this, Phase.COMMAND);
+		try {
+			return dispatch(args, listener);
+		} finally {
+			listener.onEnd(this, Phase.COMMAND, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Walks the tree without throwing an exception and notifies the given listener of the nodes that are visited.
+	 * 
+	 * @param args     A cursor on the arguments passed to the command.
+	 * @param listener The listener of this tree, or null.
+	 * 
+	 * @return The result of the dispatch.
+	 */
+	private DispatchResult dispatch(IArgumentCursor args, IDispatchListener listener) {
+		CommandMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+
+		// The exceptions thrown by the executor are converted into results.
+		CommandRoute<T> route = CommandRoute.walk(this, args, listener);
+		DispatchResult result = route.dispatch(args);
+		if (metrics != null)
+			route.record(metrics, result.getStatus(), start);
+		return result;
+	}
+
+	@Override
+	public void setMetricsEnabled(boolean enabled) {
+		if (!enabled)
+			metrics = null;
+		else if (metrics == null)
+			metrics = new CommandMetrics(this);
+	}
+
+	@Override
+	public CommandMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * {@inheritDoc} The metrics of the nodes of the removed subtree are dropped so that the metrics do not keep them.
+	 */
+	@Override
+	protected void onRemove(INode<T> node) {
+		CommandMetrics metrics = this.metrics;
+		if (metrics != null)
+			metrics.remove(node);
+	}
+
+	@Override
+	public void setDispatchListener(IDispatchListener listener) {
+		super.setDispatchListener(listener);
+	}
+
+	/**
+	 * {@inheritDoc} The matcher is used by the nodes of this tree for which no matcher has been set.
+	 */
+	@Override
+	public void setCompletionMatcher(ICompletionMatcher matcher) {
+		setDefaultCompletionMatcher(matcher);
+	}
+
+	@Override
+	public void setCompletionCacheSize(int maximumSize) {
+		setCompletionCache(maximumSize == 0 ? null : new CompletionCache(maximumSize));
+	}
+
+	@Override
+	public CompletionCache getCompletionCache() {
+		return super.getCompletionCache();
+	}
+
+	@Override
+	public void setAvailabilityCache(Duration timeToLive) {
+		setAvailabilityCache(new AvailabilityCache(timeToLive));
+	}
+
+	@Override
+	public void disableAvailabilityCache() {
+		setAvailabilityCache((AvailabilityCache) null);
+	}
+
+	@Override
+	public AvailabilityCache getAvailabilityCache() {
+		return super.getAvailabilityCache();
+	}
+
+	@Override
+	public void setEventDispatcher(INodeEventDispatcher dispatcher) {
+		super.setEventDispatcher(dispatcher);
+	}
+
+	@Override
+	public List<IDispatchResult> onCommands(List<? extends CharSequence> lines, BatchOrder order) {
+		return new CommandBatch<T>(this).execute(lines, order);
+	}
+
+	@Override
+	public void setAsyncDispatcher(IAsyncDispatcher dispatcher) {
+		super.setAsyncDispatcher(dispatcher);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> onCommandAsync(String[] args) {
+		return onCommandAsync(new ArgumentCursor(args));
+	}
+
+	@Override
+	public CompletableFuture<Boolean> onCommandAsync(CharSequence line) {
+		return onCommandAsync(new CommandLineCursor(line, false));
+	}
+
+	/**
+	 * Walks the tree as {@link #onCommand(IArgumentCursor)} does. The executor of the reached node is submitted to the dispatcher of
+	 * this tree if it is asynchronous, otherwise it is executed by the calling thread.
+	 * 
+	 * @param args A cursor on the arguments passed to the command.
+	 * 
+	 * @return A future completed with the result of the command.
+	 */
+	protected CompletableFuture<Boolean> onCommandAsync(IArgumentCursor args) {
+		IDispatchListener listener = getDispatchListener();
+		if (listener == null)
+			return onCommandAsync(args, null);
+
+		long start = System.nanoTime();
+		listener.onStart(this, Phase.COMMAND);
+		CompletableFuture<Boolean> future = onCommandAsync(args, listener);
+		future.whenComplete((success, error) -> listener.onEnd(this, Phase.COMMAND, System.nanoTime() - start));
+		return future;
+	}
+
+	/**
+	 * Walks the tree as {@link #onCommandAsync(IArgumentCursor)} does and notifies the given listener of the nodes that are visited.
+	 * 
+	 * @param args     A cursor on the arguments passed to the command.
+	 * @param listener The listener of this tree, or null.
+	 * 
+	 * @return A future completed with the result of the command.
+	 */
+	private CompletableFuture<Boolean> onCommandAsync(IArgumentCursor args, IDispatchListener listener) {
+		CommandMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+
+		CommandRoute<T> route = CommandRoute.walk(this, args, listener);
+		CompletableFuture<Boolean> future = route.executeAsync(args);
+		if (metrics != null) {
+			future.whenComplete((success, error) -> {
+				Status status = error != null ? CommandMetrics.statusOf(error) : success ? Status.SUCCESS : Status.FAILED;
+				route.record(metrics, status, start);
+			});
+		}
+		return future;
+	}
+
+	@Override
+	public void setConcurrent(boolean concurrent) {
+		super.setConcurrent(concurrent);
 	}
 
 	@Override
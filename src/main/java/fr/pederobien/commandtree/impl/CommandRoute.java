@@ -0,0 +1,199 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.concurrent.CompletableFuture;
+
+import fr.pederobien.commandtree.exceptions.NodeNotFoundException;
+import fr.pederobien.commandtree.exceptions.NotAvailableArgumentException;
+import fr.pederobien.commandtree.exceptions.NotAvailableCommandException;
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.ICommandHelperNode;
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+import fr.pederobien.commandtree.interfaces.IDispatchListener;
+import fr.pederobien.commandtree.interfaces.IDispatchListener.Phase;
+import fr.pederobien.commandtree.interfaces.IDispatchResult.Status;
+import fr.pederobien.commandtree.interfaces.IExecutor;
+import fr.pederobien.commandtree.interfaces.INode;
+
+final class CommandRoute<T> {
+	private INode<T> node;
+	private IExecutor executor;
+	private String label, argument;
+	private int position;
+	private Status status;
+
+	/**
+	 * Creates the route of a command.
+	 * 
+	 * @param node     The node on which the walk stopped, or null for the helper.
+	 * @param executor The executor to run, or null if the walk stopped without reaching an executor.
+	 * @param label    The label of the node on which the walk stopped.
+	 * @param argument The argument that designates the node, null for the root.
+	 * @param position The position of the argument in the command line.
+	 * @param status   The status of the command if the walk stopped without reaching an executor, null otherwise.
+	 */
+	private CommandRoute(INode<T> node, IExecutor executor, String label, String argument, int position, Status status) {
+		this.node = node;
+		this.executor = executor;
+		this.label = label;
+		this.argument = argument;
+		this.position = position;
+		this.status = status;
+	}
+
+	/**
+	 * Walks the tree of the given root along the arguments. The nodes that only forward the command to their children are walked
+	 * directly, the walk stops on the first node that defines its own behavior, on a node that is not found or not available, or when
+	 * there is no more argument. The cursor is left on the arguments of the node the walk stopped on.
+	 * 
+	 * @param root     The root of the tree.
+	 * @param args     A cursor on the arguments passed to the command.
+	 * @param listener The listener notified of the nodes that are visited, or null.
+	 * 
+	 * @return The route of the command.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> CommandRoute<T> walk(CommandRootNode<T> root, IArgumentCursor args, IDispatchListener listener) {
+		if (!root.isAvailable()) {
+			if (listener != null)
+				listener.onStop(root, null, Status.NOT_AVAILABLE);
+			return new CommandRoute<T>(root, null, root.getLabel(), null, -1, Status.NOT_AVAILABLE);
+		}
+
+		if (args.isEmpty())
+			return new CommandRoute<T>(root, null, root.getLabel(), null, args.getOffset(), Status.FAILED);
+
+		ICommandHelperNode<T> helper = root.getHelper();
+		if (args.get(0).equals(helper.getLabel())) {
+			// The helper is not a node of the tree, its executions are not recorded.
+			int position = args.getOffset();
+			args.next();
+			return new CommandRoute<T>(null, helper, helper.getLabel(), helper.getLabel(), position, null);
+		}
+
+		ICommandNode<T> parent = root;
+		while (true) {
+			String argument = args.get(0);
+			ICommandNode<T> node = (ICommandNode<T>) parent.getChildren().get(argument);
+
+			if (node == null) {
+				if (listener != null)
+					listener.onStop(parent, argument, Status.NOT_FOUND);
+				return new CommandRoute<T>(parent, null, parent.getLabel(), argument, args.getOffset(), Status.NOT_FOUND);
+			}
+
+			if (listener != null)
+				listener.onVisit(node, argument, Phase.COMMAND);
+
+			if (!node.isAvailable()) {
+				if (listener != null)
+					listener.onStop(node, argument, Status.NOT_AVAILABLE);
+				return new CommandRoute<T>(node, null, node.getLabel(), argument, args.getOffset(), Status.NOT_AVAILABLE);
+			}
+
+			args.next();
+			if (!Routes.isCommandRoute(node))
+				return new CommandRoute<T>(node, node, node.getLabel(), argument, args.getOffset(), null);
+
+			// Default behavior of a command node when there is no more argument.
+			if (args.isEmpty()) {
+				if (listener != null)
+					listener.onStop(node, null, Status.SUCCESS);
+				return new CommandRoute<T>(node, null, node.getLabel(), argument, args.getOffset(), Status.SUCCESS);
+			}
+
+			parent = node;
+		}
+	}
+
+	/**
+	 * Runs the executor reached by the walk.
+	 * 
+	 * @param args The cursor given to the walk, positioned on the arguments of the reached node.
+	 * 
+	 * @return true if a valid command, otherwise false.
+	 * 
+	 * @throws NotAvailableCommandException  If the root is not available.
+	 * @throws NotAvailableArgumentException If the walk stopped on a node that is not available.
+	 * @throws NodeNotFoundException         If the walk stopped on an argument that is not a child of the reached node.
+	 */
+	boolean execute(IArgumentCursor args) {
+		if (executor != null)
+			return ArgumentCursor.execute(executor, args);
+
+		switch (status) {
+		case NOT_AVAILABLE:
+			if (argument == null)
+				throw new NotAvailableCommandException(label);
+			throw new NotAvailableArgumentException(label, argument, position);
+		case NOT_FOUND:
+			throw new NodeNotFoundException(label, argument, args.copy(), () -> Node.suggestChildren(node, argument));
+		default:
+			return status == Status.SUCCESS;
+		}
+	}
+
+	/**
+	 * Runs the executor reached by the walk without throwing an exception.
+	 * 
+	 * @param args The cursor given to the walk, positioned on the arguments of the reached node.
+	 * 
+	 * @return The result of the command.
+	 */
+	DispatchResult dispatch(IArgumentCursor args) {
+		if (executor != null)
+			return DispatchResult.execute(executor, label, args);
+
+		switch (status) {
+		case NOT_AVAILABLE:
+			return DispatchResult.notAvailable(label, argument, position);
+		case NOT_FOUND:
+			return DispatchResult.notFound(label, argument, position, () -> Node.suggestChildren(node, argument));
+		default:
+			return DispatchResult.executed(label, position, status == Status.SUCCESS);
+		}
+	}
+
+	/**
+	 * Runs the executor reached by the walk, on the dispatcher of the tree if it is asynchronous.
+	 * 
+	 * @param args The cursor given to the walk, positioned on the arguments of the reached node.
+	 * 
+	 * @return A future completed with the result of the command, or exceptionally as {@link #execute(IArgumentCursor)} would throw.
+	 */
+	@SuppressWarnings("unchecked")
+	CompletableFuture<Boolean> executeAsync(IArgumentCursor args) {
+		try {
+			if (executor instanceof Tree.SetupNode<?>)
+				return ((Tree.SetupNode<T>) executor).onCommandAsync(args);
+			return CompletableFuture.completedFuture(execute(args));
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Records the command on the node the walk stopped on. The executions of the helper are not recorded.
+	 * 
+	 * @param metrics The metrics of the tree.
+	 * @param status  The status of the command.
+	 * @param start   The time at which the command started, in the time scale of {@link System#nanoTime()}.
+	 */
+	void record(CommandMetrics metrics, Status status, long start) {
+		if (node != null)
+			metrics.recordCommand(node, status, System.nanoTime() - start);
+	}
+
+	/**
+	 * @return The executor reached by the walk, or null if the walk stopped without reaching an executor.
+	 */
+	IExecutor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @return The label of the node the walk stopped on.
+	 */
+	String getLabel() {
+		return label;
+	}
+}
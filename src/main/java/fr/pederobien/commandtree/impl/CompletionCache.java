@@ -0,0 +1,135 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.pederobien.commandtree.interfaces.ICompletionCache;
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
+
+public class CompletionCache implements ICompletionCache {
+	private int maximumSize;
+	private volatile int generation;
+	private LongAdder hits, misses, size;
+
+	/**
+	 * Creates the policy of the cache of the children proposed by the nodes of a tree during a completion. The entries are not stored
+	 * by this object but by the {@link CompletionIndex} of each node, so that a cache hit neither takes a lock shared by the tree nor
+	 * retains the nodes removed from the tree. The entries of a node are the positions of the children matching a partial argument,
+	 * they are dropped when a child is added or removed and do not depend on the availability of the children, which is checked at
+	 * each completion.
+	 * 
+	 * @param maximumSize The maximum number of entries stored by each node.
+	 */
+	public CompletionCache(int maximumSize) {
+		if (maximumSize <= 0)
+			throw new IllegalArgumentException("The maximum size must be strictly positive");
+
+		this.maximumSize = maximumSize;
+		hits = new LongAdder();
+		misses = new LongAdder();
+		size = new LongAdder();
+	}
+
+	/**
+	 * Get the entries a completion index should use for the given matcher.
+	 * 
+	 * @param entries The entries currently used by the index, or null.
+	 * @param matcher The matcher used to filter the children.
+	 * 
+	 * @return The given entries if they still belong to this cache and correspond to the given matcher, new entries otherwise.
+	 */
+	Entries entries(Entries entries, ICompletionMatcher matcher) {
+		if (entries != null) {
+			if (entries.cache == this && entries.generation == generation && entries.matcher == matcher)
+				return entries;
+			entries.discard();
+		}
+		return new Entries(this, generation, matcher);
+	}
+
+	@Override
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public int size() {
+		return (int) Math.max(0, size.sum());
+	}
+
+	@Override
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	@Override
+	public void clear() {
+		// The entries of the previous generation are dropped by each node on its next completion.
+		generation++;
+		hits.reset();
+		misses.reset();
+		size.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CompletionCache_{size=%s, maximumSize=%s, hits=%s, misses=%s}", size(), maximumSize, getHitCount(), getMissCount());
+	}
+
+	static class Entries {
+		private final CompletionCache cache;
+		private final int generation;
+		private final ICompletionMatcher matcher;
+		private final Map<String, long[]> values;
+
+		private Entries(CompletionCache cache, int generation, ICompletionMatcher matcher) {
+			this.cache = cache;
+			this.generation = generation;
+			this.matcher = matcher;
+			values = new ConcurrentHashMap<String, long[]>();
+		}
+
+		/**
+		 * @param argument The partial argument to complete.
+		 * 
+		 * @return The matches stored for the given argument, or null.
+		 */
+		long[] get(String argument) {
+			long[] matches = values.get(argument);
+			if (matches == null)
+				cache.misses.increment();
+			else
+				cache.hits.increment();
+			return matches;
+		}
+
+		/**
+		 * Stores the matches of the given argument. The entries are dropped once the maximum size is reached.
+		 * 
+		 * @param argument The partial argument to complete.
+		 * @param matches  The sorted matches, they must not be modified afterwards.
+		 */
+		void put(String argument, long[] matches) {
+			if (values.size() >= cache.maximumSize)
+				discard();
+			if (values.putIfAbsent(argument, matches) == null && generation == cache.generation)
+				cache.size.increment();
+		}
+
+		/**
+		 * Drops all entries.
+		 */
+		void discard() {
+			int count = values.size();
+			values.clear();
+			if (generation == cache.generation)
+				cache.size.add(-count);
+		}
+	}
+}
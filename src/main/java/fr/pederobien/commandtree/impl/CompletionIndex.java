@@ -0,0 +1,293 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
+import fr.pederobien.commandtree.interfaces.INode;
+
+public class CompletionIndex<T> {
+	private static final int INITIAL_CAPACITY = 4;
+
+	private String[] keys;
+	private INode<T>[] nodes;
+	private int[] orders;
+	private int size, next;
+	private volatile CompletionCache.Entries cached;
+
+	/**
+	 * Creates an index that stores the children of a node sorted by their case-folded label in order to answer prefix queries with a
+	 * binary search instead of a scan over all children. The case-folded labels are computed once, when a child is registered, and
+	 * the position of each child in the registration order is kept so that the matching children are returned in this order.
+	 * 
+	 * @param children The children to register.
+	 */
+	@SuppressWarnings("unchecked")
+	public CompletionIndex(Iterable<? extends INode<T>> children) {
+		keys = new String[INITIAL_CAPACITY];
+		nodes = (INode<T>[]) new INode<?>[INITIAL_CAPACITY];
+		orders = new int[INITIAL_CAPACITY];
+		for (INode<T> child : children)
+			add(child);
+	}
+
+	/**
+	 * Creates a copy of the given index. Modifying the copy does not modify the given index. The matches cached by the given index are
+	 * not copied.
+	 * 
+	 * @param index The index to copy.
+	 */
+	public CompletionIndex(CompletionIndex<T> index) {
+		keys = Arrays.copyOf(index.keys, Math.max(INITIAL_CAPACITY, index.size + 1));
+		nodes = Arrays.copyOf(index.nodes, keys.length);
+		orders = Arrays.copyOf(index.orders, keys.length);
+		size = index.size;
+		next = index.next;
+	}
+
+	/**
+	 * Register the given node in this index.
+	 * 
+	 * @param node The node to register.
+	 */
+	public void add(INode<T> node) {
+		String key = fold(node.getLabel());
+		int index = search(key, node.getLabel());
+		if (index >= 0) {
+			nodes[index] = node;
+			invalidate();
+			return;
+		}
+
+		index = -(index + 1);
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			nodes = Arrays.copyOf(nodes, size * 2);
+			orders = Arrays.copyOf(orders, size * 2);
+		}
+
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(nodes, index, nodes, index + 1, size - index);
+		System.arraycopy(orders, index, orders, index + 1, size - index);
+		keys[index] = key;
+		nodes[index] = node;
+		orders[index] = next++;
+		size++;
+		invalidate();
+	}
+
+	/**
+	 * Unregister the node associated to the given label.
+	 * 
+	 * @param label The label of the node to unregister.
+	 */
+	public void remove(String label) {
+		int index = search(fold(label), label);
+		if (index < 0)
+			return;
+
+		System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+		System.arraycopy(nodes, index + 1, nodes, index, size - index - 1);
+		System.arraycopy(orders, index + 1, orders, index, size - index - 1);
+		size--;
+		keys[size] = null;
+		nodes[size] = null;
+		invalidate();
+	}
+
+	/**
+	 * Get the label of each registered node whose label starts with the given prefix, ignoring case. The complexity is logarithmic in
+	 * the number of registered nodes plus linear in the number of results, the results are then sorted in the registration order.
+	 * 
+	 * @param prefix The beginning of the labels.
+	 * @param filter A filter applied only on the nodes that match the prefix.
+	 * 
+	 * @return A list of labels in the order the nodes have been registered.
+	 */
+	public List<String> startWith(String prefix, Predicate<INode<T>> filter) {
+		String key = fold(prefix);
+		int from = lowerBound(key), to = from;
+		while (to < size && keys[to].startsWith(key))
+			to++;
+
+		long[] matches = new long[to - from];
+		for (int index = from; index < to; index++)
+			matches[index - from] = match(index);
+		Arrays.sort(matches);
+		return collect(matches, matches.length, filter);
+	}
+
+	/**
+	 * Get the label of each registered node that matches the given argument according to the given matcher. The matcher is called
+	 * with the case-folded label computed when the node has been registered. The {@link CompletionMatcher#PREFIX} matcher is answered
+	 * by {@link #startWith(String, Predicate)}, the other matchers are called for each registered node.
+	 * 
+	 * @param matcher  The matcher used to compare the labels with the argument.
+	 * @param argument The partial argument to complete.
+	 * @param filter   A filter applied only on the nodes that match the argument.
+	 * 
+	 * @return A list of labels in the order the nodes have been registered.
+	 */
+	public List<String> match(ICompletionMatcher matcher, String argument, Predicate<INode<T>> filter) {
+		if (matcher == CompletionMatcher.PREFIX)
+			return startWith(argument, filter);
+
+		long[] matches = scan(matcher, argument);
+		return collect(matches, matches.length, filter);
+	}
+
+	/**
+	 * Get the label of each registered node that matches the given argument according to the given matcher. The matching positions
+	 * are stored in the given cache, a later call with the same argument and the same matcher only applies the filter on them. The
+	 * {@link CompletionMatcher#PREFIX} matcher is never cached since it is already answered by a binary search.
+	 * 
+	 * @param matcher  The matcher used to compare the labels with the argument.
+	 * @param argument The partial argument to complete.
+	 * @param filter   A filter applied only on the nodes that match the argument.
+	 * @param cache    The cache of the tree, or null to not cache the matches.
+	 * 
+	 * @return A list of labels in the order the nodes have been registered.
+	 */
+	public List<String> match(ICompletionMatcher matcher, String argument, Predicate<INode<T>> filter, CompletionCache cache) {
+		if (cache == null || matcher == CompletionMatcher.PREFIX)
+			return match(matcher, argument, filter);
+
+		CompletionCache.Entries entries = cached, current = cache.entries(entries, matcher);
+		if (current != entries)
+			cached = entries = current;
+
+		long[] matches = entries.get(argument);
+		if (matches == null) {
+			matches = scan(matcher, argument);
+			entries.put(argument, matches);
+		}
+		return collect(matches, matches.length, filter);
+	}
+
+	/**
+	 * Drops the matches cached by this index.
+	 */
+	public void invalidate() {
+		CompletionCache.Entries entries = cached;
+		if (entries != null) {
+			cached = null;
+			entries.discard();
+		}
+	}
+
+	/**
+	 * @return The number of registered nodes.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Folds the case of the given string. Two strings that are equal ignoring case have the same folded key.
+	 * 
+	 * @param string The string to fold.
+	 * 
+	 * @return The case-folded string.
+	 */
+	public static String fold(String string) {
+		return string.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Binary search of the couple (key, label). Labels that have the same folded key are sorted by label.
+	 * 
+	 * @param key   The folded key.
+	 * @param label The label.
+	 * 
+	 * @return The index of the couple if registered, otherwise <code>(-(insertion point) - 1)</code>.
+	 */
+	private int search(String key, String label) {
+		int low = 0, high = size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int compare = keys[middle].compareTo(key);
+			if (compare == 0)
+				compare = nodes[middle].getLabel().compareTo(label);
+
+			if (compare < 0)
+				low = middle + 1;
+			else if (compare > 0)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * @param index The index of a registered node.
+	 * 
+	 * @return The registration order of the node in the high bits and its index in the low bits, so that sorting the matches sorts
+	 *         them in the registration order.
+	 */
+	private long match(int index) {
+		return (long) orders[index] << 32 | index;
+	}
+
+	/**
+	 * Calls the given matcher for each registered node.
+	 * 
+	 * @param matcher  The matcher used to compare the labels with the argument.
+	 * @param argument The partial argument to complete.
+	 * 
+	 * @return The matching nodes, as returned by {@link #match(int)}, sorted in the registration order.
+	 */
+	private long[] scan(ICompletionMatcher matcher, String argument) {
+		long[] matches = new long[Math.min(size, INITIAL_CAPACITY)];
+		int count = 0;
+		String key = fold(argument);
+		for (int index = 0; index < size; index++) {
+			if (matcher.matches(nodes[index].getLabel(), keys[index], key)) {
+				if (count == matches.length)
+					matches = Arrays.copyOf(matches, count * 2);
+				matches[count++] = match(index);
+			}
+		}
+		Arrays.sort(matches, 0, count);
+		return count == matches.length ? matches : Arrays.copyOf(matches, count);
+	}
+
+	/**
+	 * Get the label of the matching nodes that satisfy the given filter, in the registration order.
+	 * 
+	 * @param matches The matching nodes, as returned by {@link #match(int)}, sorted in the registration order.
+	 * @param count   The number of matching nodes.
+	 * @param filter  A filter applied on the matching nodes.
+	 * 
+	 * @return A list of labels.
+	 */
+	private List<String> collect(long[] matches, int count, Predicate<INode<T>> filter) {
+		List<String> labels = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			INode<T> node = nodes[(int) matches[i]];
+			if (filter.test(node))
+				labels.add(node.getLabel());
+		}
+		return labels;
+	}
+
+	/**
+	 * @param key The folded key.
+	 * 
+	 * @return The index of the first registered key greater than or equal to the given key.
+	 */
+	private int lowerBound(String key) {
+		int low = 0, high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (keys[middle].compareTo(key) < 0)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+}
@@ -0,0 +1,150 @@
+package fr.pederobien.commandtree.impl;
+
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
+
+public enum CompletionMatcher implements ICompletionMatcher {
+
+	/**
+	 * The label starts with the filter. This matcher is answered by a binary search in the {@link CompletionIndex} instead of being
+	 * called for each child.
+	 */
+	PREFIX {
+		@Override
+		public boolean matches(String label, String foldedLabel, String filter) {
+			return foldedLabel.startsWith(filter);
+		}
+	},
+
+	/**
+	 * The label contains the filter. This is the default matcher of a tree.
+	 */
+	SUBSTRING {
+		@Override
+		public boolean matches(String label, String foldedLabel, String filter) {
+			return foldedLabel.contains(filter);
+		}
+	},
+
+	/**
+	 * Each character of the filter continues the current hump of the label or starts one of the next humps. A hump starts at the
+	 * beginning of the label, at an upper case character or after a character that is neither a letter nor a digit. For example
+	 * "gcbl" matches "getChildrenByLabel". When a choice dead-ends, the next humps are tried, so that "fbaz" matches "fooBarBaz".
+	 */
+	CAMEL_HUMP {
+		@Override
+		public boolean matches(String label, String foldedLabel, String filter) {
+			// The first choice of each character is tried without allocation, most labels match or are rejected by this pass.
+			int position = 0;
+			for (int i = 0; i < filter.length(); i++) {
+				char expected = filter.charAt(i);
+				if (position < label.length() && fold(label.charAt(position)) == expected) {
+					position++;
+					continue;
+				}
+
+				position = nextHump(label, position, expected);
+				if (position < 0)
+					return isSubsequence(label, filter) && matchHumps(label, filter, 0, 0, new boolean[filter.length() * (label.length() + 1)]);
+				position++;
+			}
+			return true;
+		}
+	},
+
+	/**
+	 * The characters of the filter appear in the label in the same order, but not necessarily consecutively. For example "gcl" matches
+	 * "getChildrenByLabel".
+	 */
+	SUBSEQUENCE {
+		@Override
+		public boolean matches(String label, String foldedLabel, String filter) {
+			int position = 0;
+			for (int i = 0; i < filter.length(); i++) {
+				position = foldedLabel.indexOf(filter.charAt(i), position);
+				if (position < 0)
+					return false;
+				position++;
+			}
+			return true;
+		}
+	};
+
+	/**
+	 * Check if the end of the filter matches the label from the given position: the character at the given index of the filter
+	 * continues the current hump or starts one of the next humps. Each choice is tried until the whole filter matches.
+	 * 
+	 * @param label    The label to match.
+	 * @param filter   The case-folded filter.
+	 * @param index    The index of the next character of the filter to match.
+	 * @param position The position in the label just after the last matched character.
+	 * @param failed   The couples (index, position) from which the filter has already been found not to match.
+	 * 
+	 * @return True if the end of the filter matches the end of the label.
+	 */
+	private static boolean matchHumps(String label, String filter, int index, int position, boolean[] failed) {
+		if (index == filter.length())
+			return true;
+
+		int state = index * (label.length() + 1) + position;
+		if (failed[state])
+			return false;
+
+		char expected = filter.charAt(index);
+		if (position < label.length() && fold(label.charAt(position)) == expected && matchHumps(label, filter, index + 1, position + 1, failed))
+			return true;
+
+		for (int hump = nextHump(label, position + 1, expected); hump >= 0; hump = nextHump(label, hump + 1, expected))
+			if (matchHumps(label, filter, index + 1, hump + 1, failed))
+				return true;
+
+		failed[state] = true;
+		return false;
+	}
+
+	/**
+	 * @param label  The label to check.
+	 * @param filter The case-folded filter.
+	 * 
+	 * @return True if the characters of the filter appear in the label in the same order, ignoring case. A label that does not
+	 *         satisfy this condition cannot match the filter by humps.
+	 */
+	private static boolean isSubsequence(String label, String filter) {
+		int position = 0;
+		for (int i = 0; i < filter.length(); i++) {
+			while (position < label.length() && fold(label.charAt(position)) != filter.charAt(i))
+				position++;
+			if (position++ == label.length())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Find the next hump of the label, after the given position, whose the first character is the expected character.
+	 * 
+	 * @param label    The label to search in.
+	 * @param from     The position from which the hump is searched.
+	 * @param expected The case-folded expected character.
+	 * 
+	 * @return The position of the hump, or -1 if there is no such hump.
+	 */
+	private static int nextHump(String label, int from, char expected) {
+		for (int position = Math.max(from, 1); position < label.length(); position++) {
+			char current = label.charAt(position);
+			char previous = label.charAt(position - 1);
+			boolean hump = Character.isUpperCase(current) || !Character.isLetterOrDigit(previous);
+			if (hump && fold(current) == expected)
+				return position;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param c The character to fold.
+	 * 
+	 * @return The case-folded character.
+	 */
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+}
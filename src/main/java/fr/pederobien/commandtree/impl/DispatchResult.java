@@ -0,0 +1,239 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import fr.pederobien.commandtree.exceptions.CommandRejectedException;
+import fr.pederobien.commandtree.exceptions.NodeNotFoundException;
+import fr.pederobien.commandtree.exceptions.NotAvailableArgumentException;
+import fr.pederobien.commandtree.exceptions.NotAvailableCommandException;
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.IDispatchResult;
+import fr.pederobien.commandtree.interfaces.IExecutor;
+
+public class DispatchResult implements IDispatchResult {
+	private Status status;
+	private String label, argument;
+	private int position;
+	private List<String> suggestions;
+	private Supplier<List<String>> suggestionsSupplier;
+	private Throwable error;
+
+	private DispatchResult(Status status, String label, String argument, int position, Supplier<List<String>> suggestions) {
+		this.status = status;
+		this.label = label;
+		this.argument = argument;
+		this.position = position;
+		this.suggestionsSupplier = suggestions;
+	}
+
+	/**
+	 * Creates the result of an executed command.
+	 * 
+	 * @param label    The label of the executed node.
+	 * @param position The position of the first argument given to the executor.
+	 * @param success  The value returned by the executor.
+	 * 
+	 * @return A result whose status is {@link Status#SUCCESS} or {@link Status#FAILED}.
+	 */
+	public static DispatchResult executed(String label, int position, boolean success) {
+		return new DispatchResult(success ? Status.SUCCESS : Status.FAILED, label, null, position, null);
+	}
+
+	/**
+	 * Creates the result of a command whose executor threw an exception.
+	 * 
+	 * @param label    The label of the executed node.
+	 * @param position The position of the first argument given to the executor.
+	 * @param error    The exception thrown by the executor.
+	 * 
+	 * @return A result whose status is {@link Status#FAILED}.
+	 */
+	public static DispatchResult failed(String label, int position, Throwable error) {
+		DispatchResult result = new DispatchResult(Status.FAILED, label, null, position, null);
+		result.error = error;
+		return result;
+	}
+
+	/**
+	 * Creates the result of a dispatch that stopped on an argument that does not correspond to any child.
+	 * 
+	 * @param label       The label of the node that has no child for the argument.
+	 * @param argument    The not found argument.
+	 * @param position    The position of the not found argument.
+	 * @param suggestions The supplier of the labels close to the not found argument.
+	 * 
+	 * @return A result whose status is {@link Status#NOT_FOUND}.
+	 */
+	public static DispatchResult notFound(String label, String argument, int position, Supplier<List<String>> suggestions) {
+		return new DispatchResult(Status.NOT_FOUND, label, argument, position, suggestions);
+	}
+
+	/**
+	 * Creates the result of a dispatch that stopped on a node that is not available.
+	 * 
+	 * @param label    The label of the not available node.
+	 * @param argument The argument associated to the node, or null if the command itself is not available.
+	 * @param position The position of the argument, or -1 if the command itself is not available.
+	 * 
+	 * @return A result whose status is {@link Status#NOT_AVAILABLE}.
+	 */
+	public static DispatchResult notAvailable(String label, String argument, int position) {
+		return new DispatchResult(Status.NOT_AVAILABLE, label, argument, position, null);
+	}
+
+	/**
+	 * Creates the result that corresponds to a command rejected by the limits of a node.
+	 * 
+	 * @param exception The thrown exception.
+	 * 
+	 * @return A result whose status is {@link Status#REJECTED}.
+	 */
+	public static DispatchResult of(CommandRejectedException exception) {
+		DispatchResult result = new DispatchResult(Status.REJECTED, exception.getLabel(), null, -1, null);
+		result.error = exception;
+		return result;
+	}
+
+	/**
+	 * Creates the result that corresponds to an exception thrown by an executor.
+	 * 
+	 * @param exception The thrown exception.
+	 * 
+	 * @return A result whose status is {@link Status#NOT_FOUND}.
+	 */
+	public static DispatchResult of(NodeNotFoundException exception) {
+		return notFound(exception.getLabel(), exception.getNotFoundArgument(), exception.getPosition(), () -> exception.getSuggestions());
+	}
+
+	/**
+	 * Creates the result that corresponds to an exception thrown by an executor.
+	 * 
+	 * @param exception The thrown exception.
+	 * 
+	 * @return A result whose status is {@link Status#NOT_AVAILABLE}.
+	 */
+	public static DispatchResult of(NotAvailableArgumentException exception) {
+		return notAvailable(exception.getLabel(), exception.getArgument(), exception.getPosition());
+	}
+
+	/**
+	 * Creates the result that corresponds to an exception thrown by an executor.
+	 * 
+	 * @param exception The thrown exception.
+	 * 
+	 * @return A result whose status is {@link Status#NOT_AVAILABLE}.
+	 */
+	public static DispatchResult of(NotAvailableCommandException exception) {
+		return notAvailable(exception.getLabel(), null, -1);
+	}
+
+	/**
+	 * Executes the given executor and converts the exceptions thrown by the nodes it dispatches to, or by the executor itself, into
+	 * results.
+	 * 
+	 * @param executor The executor to call.
+	 * @param label    The label of the node associated to the executor.
+	 * @param args     The cursor on the arguments given to the executor.
+	 * 
+	 * @return The result of the execution.
+	 */
+	static DispatchResult execute(IExecutor executor, String label, IArgumentCursor args) {
+		int position = args.getOffset();
+		try {
+			return executed(label, position, ArgumentCursor.execute(executor, args));
+		} catch (RuntimeException e) {
+			return of(label, position, e);
+		}
+	}
+
+	/**
+	 * Creates the result that corresponds to an exception thrown while executing a command. The exceptions thrown by the nodes are
+	 * converted into their status, the other exceptions into a failure of the executor.
+	 * 
+	 * @param label    The label of the executed node.
+	 * @param position The position of the first argument given to the executor.
+	 * @param error    The thrown exception, possibly wrapped in a {@link CompletionException} by an asynchronous executor.
+	 * 
+	 * @return The result of the command.
+	 */
+	static DispatchResult of(String label, int position, Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (cause instanceof NodeNotFoundException)
+			return of((NodeNotFoundException) cause);
+		if (cause instanceof NotAvailableArgumentException)
+			return of((NotAvailableArgumentException) cause);
+		if (cause instanceof NotAvailableCommandException)
+			return of((NotAvailableCommandException) cause);
+		if (cause instanceof CommandRejectedException)
+			return of((CommandRejectedException) cause);
+		return failed(label, position, cause);
+	}
+
+	@Override
+	public Status getStatus() {
+		return status;
+	}
+
+	@Override
+	public boolean isSuccess() {
+		return status == Status.SUCCESS;
+	}
+
+	@Override
+	public String getLabel() {
+		return label;
+	}
+
+	@Override
+	public String getArgument() {
+		return argument;
+	}
+
+	@Override
+	public int getPosition() {
+		return position;
+	}
+
+	@Override
+	public List<String> getSuggestions() {
+		if (suggestions == null)
+			suggestions = suggestionsSupplier == null ? new ArrayList<String>() : suggestionsSupplier.get();
+		return suggestions;
+	}
+
+	@Override
+	public Throwable getError() {
+		return error;
+	}
+
+	@Override
+	public String getMessage() {
+		switch (status) {
+		case SUCCESS:
+			return "The command " + label + " succeeded";
+		case FAILED:
+			return "The command " + label + " failed" + (error == null ? "" : " : " + error);
+		case NOT_FOUND:
+			StringJoiner joiner = new StringJoiner(" ");
+			joiner.add("Argument \"" + argument + "\" not found for command : " + label + ".");
+			if (!getSuggestions().isEmpty())
+				joiner.add("Did you mean : " + String.join(", ", getSuggestions()) + " ?");
+			return joiner.toString();
+		case REJECTED:
+			return error.getMessage();
+		default:
+			if (argument == null)
+				return "The command " + label + " is not available (yet ?)";
+			return "The argument \"" + argument + "\" associated to the command \"" + label + "\" is not available.";
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getStatus() + " : " + getMessage();
+	}
+}
@@ -0,0 +1,240 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.pederobien.commandtree.exceptions.NodeNotFoundException;
+import fr.pederobien.commandtree.exceptions.NotAvailableArgumentException;
+import fr.pederobien.commandtree.exceptions.NotAvailableCommandException;
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+import fr.pederobien.commandtree.interfaces.ICommandRootNode;
+import fr.pederobien.commandtree.interfaces.IDispatchTable;
+import fr.pederobien.commandtree.interfaces.INode;
+
+public class DispatchTable<T> implements IDispatchTable<T> {
+	private static final int ROOT = 0;
+
+	private CommandRootNode<T> root;
+	private ICommandNode<T>[] nodes;
+	private String[] labels;
+	private int[] parents;
+	private boolean[] routes;
+	private int[] slots;
+	private int mask;
+
+	/**
+	 * Creates a dispatch table by flattening the current structure of the given root. Each node is identified by its index in
+	 * parallel arrays and the children are registered in one open addressing table whose key is the couple (parent index, label).
+	 * Only the children of nodes that do not override the default dispatch behavior are registered.
+	 * 
+	 * @param root The root to compile.
+	 */
+	@SuppressWarnings("unchecked")
+	protected DispatchTable(CommandRootNode<T> root) {
+		this.root = root;
+
+		List<ICommandNode<T>> nodeList = new ArrayList<ICommandNode<T>>();
+		List<Integer> parentList = new ArrayList<Integer>();
+		nodeList.add(root);
+		parentList.add(-1);
+
+		// Breadth first traversal, no recursion in order to support very deep trees.
+		for (int index = 0; index < nodeList.size(); index++) {
+			ICommandNode<T> node = nodeList.get(index);
+			if (index != ROOT && !Routes.isCommandRoute(node))
+				continue;
+
+			for (INode<T> child : node.getChildren().values()) {
+				nodeList.add((ICommandNode<T>) child);
+				parentList.add(index);
+			}
+		}
+
+		int size = nodeList.size();
+		nodes = nodeList.toArray((ICommandNode<T>[]) new ICommandNode<?>[size]);
+		labels = new String[size];
+		parents = new int[size];
+		routes = new boolean[size];
+
+		int capacity = Integer.highestOneBit(Math.max(2, size * 2) - 1) << 1;
+		slots = new int[capacity];
+		mask = capacity - 1;
+
+		for (int id = 0; id < size; id++) {
+			labels[id] = nodes[id].getLabel();
+			parents[id] = parentList.get(id);
+			routes[id] = id == ROOT || Routes.isCommandRoute(nodes[id]);
+			if (id == ROOT)
+				continue;
+
+			int index = hash(parents[id], labels[id]) & mask;
+			while (slots[index] != 0)
+				index = (index + 1) & mask;
+
+			// The root is never registered as child, 0 can be used to represent an empty slot.
+			slots[index] = id;
+		}
+	}
+
+	@Override
+	public ICommandRootNode<T> getRoot() {
+		return root;
+	}
+
+	@Override
+	public ICommandNode<T> resolve(String... args) {
+		int current = ROOT;
+		for (int i = 0; i < args.length && routes[current]; i++) {
+			int child = find(current, args[i]);
+			if (child < 0)
+				break;
+			current = child;
+		}
+		return nodes[current];
+	}
+
+	@Override
+	public boolean onCommand(String[] args) {
+		return onCommand(new ArgumentCursor(args));
+	}
+
+	@Override
+	public boolean onCommand(CharSequence line) {
+		return onCommand(new CommandLineCursor(line, false));
+	}
+
+	@Override
+	public boolean onCommand(IArgumentCursor args) {
+		if (!root.isAvailable())
+			throw new NotAvailableCommandException(root.getLabel());
+
+		if (args.isEmpty())
+			return false;
+
+		if (args.get(0).equals(root.getHelper().getLabel()))
+			return ArgumentCursor.execute(root.getHelper(), args.next());
+
+		int current = ROOT;
+		while (true) {
+			String argument = args.get(0);
+			int child = find(current, argument);
+
+			if (child < 0) {
+				int parent = current;
+				throw new NodeNotFoundException(labels[current], argument, args.copy(), () -> suggest(parent, argument));
+			}
+
+			ICommandNode<T> node = nodes[child];
+			if (!node.isAvailable())
+				throw new NotAvailableArgumentException(labels[child], argument, args.getOffset());
+
+			args.next();
+
+			// The node defines its own behavior, the remaining arguments are given to its executor.
+			if (!routes[child])
+				return ArgumentCursor.execute(node, args);
+
+			// Default behavior of a command node when there is no more argument.
+			if (args.isEmpty())
+				return true;
+
+			current = child;
+		}
+	}
+
+	@Override
+	public DispatchResult dispatch(String[] args) {
+		return dispatch(new ArgumentCursor(args));
+	}
+
+	@Override
+	public DispatchResult dispatch(CharSequence line) {
+		return dispatch(new CommandLineCursor(line, false));
+	}
+
+	/**
+	 * Walks the table as {@link #onCommand(IArgumentCursor)} does, without throwing an exception.
+	 * 
+	 * @param args A cursor on the arguments passed to the command.
+	 * 
+	 * @return The result of the dispatch.
+	 */
+	private DispatchResult dispatch(IArgumentCursor args) {
+		if (!root.isAvailable())
+			return DispatchResult.notAvailable(root.getLabel(), null, -1);
+
+		if (args.isEmpty())
+			return DispatchResult.executed(root.getLabel(), args.getOffset(), false);
+
+		if (args.get(0).equals(root.getHelper().getLabel()))
+			return DispatchResult.execute(root.getHelper(), root.getHelper().getLabel(), args.next());
+
+		int current = ROOT;
+		while (true) {
+			String argument = args.get(0);
+			int child = find(current, argument);
+
+			if (child < 0) {
+				int parent = current;
+				return DispatchResult.notFound(labels[current], argument, args.getOffset(), () -> suggest(parent, argument));
+			}
+
+			if (!nodes[child].isAvailable())
+				return DispatchResult.notAvailable(labels[child], argument, args.getOffset());
+
+			args.next();
+			if (!routes[child])
+				return DispatchResult.execute(nodes[child], labels[child], args);
+
+			if (args.isEmpty())
+				return DispatchResult.executed(labels[child], args.getOffset(), true);
+
+			current = child;
+		}
+	}
+
+	/**
+	 * Get the index of the child registered for the given label.
+	 * 
+	 * @param parent The index of the parent node.
+	 * @param label  The label of the child.
+	 * 
+	 * @return The index of the child, or -1 if there is no child registered for the given label.
+	 */
+	private int find(int parent, String label) {
+		int index = hash(parent, label) & mask;
+		int id;
+		while ((id = slots[index]) != 0) {
+			if (parents[id] == parent && labels[id].equals(label))
+				return id;
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the suggestions of the node associated to the given index for an argument that has not been found.
+	 * 
+	 * @param id       The index of the node.
+	 * @param argument The argument that has not been found.
+	 * 
+	 * @return A list of labels close to the argument.
+	 */
+	private List<String> suggest(int id, String argument) {
+		return Node.suggestChildren(nodes[id], argument);
+	}
+
+	/**
+	 * Computes the hash code associated to the couple (parent, label).
+	 * 
+	 * @param parent The index of the parent node.
+	 * @param label  The label of the child node.
+	 * 
+	 * @return The hash code of the couple.
+	 */
+	private static int hash(int parent, String label) {
+		int hash = label.hashCode() * 31 + parent;
+		return hash ^ (hash >>> 16);
+	}
+}
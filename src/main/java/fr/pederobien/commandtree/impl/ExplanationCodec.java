@@ -0,0 +1,43 @@
+package fr.pederobien.commandtree.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import fr.pederobien.commandtree.interfaces.IExplanationCodec;
+
+public class ExplanationCodec<T> implements IExplanationCodec<T> {
+	private static final ExplanationCodec<String> STRING = new ExplanationCodec<String>(explanation -> explanation.getBytes(StandardCharsets.UTF_8),
+			buffer -> StandardCharsets.UTF_8.decode(buffer).toString());
+
+	private Function<T, byte[]> encoder;
+	private Function<ByteBuffer, T> decoder;
+
+	/**
+	 * Creates a codec specified by the given parameters.
+	 * 
+	 * @param encoder The function that returns the bytes of an explanation.
+	 * @param decoder The function that reads an explanation from the remaining bytes of a buffer.
+	 */
+	public ExplanationCodec(Function<T, byte[]> encoder, Function<ByteBuffer, T> decoder) {
+		this.encoder = encoder;
+		this.decoder = decoder;
+	}
+
+	/**
+	 * @return A codec that encodes the explanations in UTF-8.
+	 */
+	public static ExplanationCodec<String> string() {
+		return STRING;
+	}
+
+	@Override
+	public byte[] encode(T explanation) {
+		return encoder.apply(explanation);
+	}
+
+	@Override
+	public T decode(ByteBuffer buffer) {
+		return decoder.apply(buffer);
+	}
+}
@@ -0,0 +1,409 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import fr.pederobien.commandtree.exceptions.NodeNotFoundException;
+import fr.pederobien.commandtree.exceptions.NotAvailableArgumentException;
+import fr.pederobien.commandtree.exceptions.NotAvailableCommandException;
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.ICommandHelperNode;
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
+import fr.pederobien.commandtree.interfaces.INode;
+
+public class FrozenCommandNode<T> implements ICommandNode<T> {
+	private static final String ALL_CHILDREN = "*";
+	private static final FrozenCommandNode<?>[] NO_CHILDREN = new FrozenCommandNode<?>[0];
+	private static final int[] NO_HASHES = new int[0];
+
+	private ICommandNode<T> source;
+	private String label;
+	private T explanation;
+	private FrozenCommandNode<T> parent, root;
+	private NodePath<T> path;
+	private ICommandHelperNode<T> helper;
+	private ICompletionMatcher matcher;
+	private boolean commandRoute, completionRoute;
+	private int[] hashes;
+	private FrozenCommandNode<T>[] sorted, ordered;
+	private Map<String, ICommandNode<T>> children;
+	private CompletionIndex<T> completionIndex;
+	private volatile SuggestionIndex<T> suggestionIndex;
+
+	/**
+	 * Creates an immutable snapshot of the given root and of all its descendants. The children of a node are stored in arrays sorted
+	 * by the hash code of their label, a child is found by a binary search on integers. The availability of a snapshot node is still
+	 * given by the node from which it has been created, and the nodes that define their own completor or executor are still called.
+	 * The completion matcher of a snapshot node is the one of its source when the tree has been frozen.
+	 * 
+	 * @param root The root to freeze.
+	 */
+	protected FrozenCommandNode(CommandRootNode<T> root) {
+		this(root, null, root.getHelper(), Routes.isCommandRoute(root), Routes.isCompletionRoute(root));
+
+		// The descendants are frozen iteratively so that the depth of the tree is not limited by the size of the stack.
+		Deque<FrozenCommandNode<T>> pending = new ArrayDeque<FrozenCommandNode<T>>();
+		pending.push(this);
+		while (!pending.isEmpty()) {
+			FrozenCommandNode<T> node = pending.pop();
+			node.freezeChildren();
+			for (FrozenCommandNode<T> child : node.ordered)
+				pending.push(child);
+		}
+	}
+
+	/**
+	 * Creates an immutable snapshot of the given node, without children. The source is kept to get the availability of the node and
+	 * to call the nodes that define their own completor or executor.
+	 * 
+	 * @param source          The node to freeze.
+	 * @param parent          The snapshot of the parent node, null for a root.
+	 * @param helper          The helper of the root, null if the node is not a root.
+	 * @param commandRoute    True if the snapshot can dispatch a command to its children itself.
+	 * @param completionRoute True if the snapshot can forward a completion to its children itself.
+	 */
+	@SuppressWarnings("unchecked")
+	private FrozenCommandNode(ICommandNode<T> source, FrozenCommandNode<T> parent, ICommandHelperNode<T> helper, boolean commandRoute,
+			boolean completionRoute) {
+		this.source = source;
+		this.label = source.getLabel();
+		this.explanation = source.getExplanation();
+		this.parent = parent;
+		this.root = parent == null ? this : parent.root;
+		this.path = new NodePath<T>(this, parent == null ? null : parent.path);
+		this.helper = helper;
+		this.commandRoute = commandRoute;
+		this.completionRoute = completionRoute;
+		this.matcher = Node.getCompletionMatcher(source);
+
+		// Leaves share the same empty structures.
+		ordered = sorted = (FrozenCommandNode<T>[]) NO_CHILDREN;
+		hashes = NO_HASHES;
+		children = Collections.emptyMap();
+	}
+
+	/**
+	 * Creates the snapshot of each child of the source of this node.
+	 */
+	@SuppressWarnings("unchecked")
+	private void freezeChildren() {
+		if (source.getChildren().isEmpty())
+			return;
+
+		List<FrozenCommandNode<T>> list = new ArrayList<FrozenCommandNode<T>>();
+		for (INode<T> child : source.getChildren().values()) {
+			ICommandNode<T> command = (ICommandNode<T>) child;
+			list.add(new FrozenCommandNode<T>(command, this, null, Routes.isCommandRoute(command), Routes.isCompletionRoute(command)));
+		}
+
+		ordered = (FrozenCommandNode<T>[]) list.toArray(new FrozenCommandNode<?>[list.size()]);
+		sorted = ordered.clone();
+		Arrays.sort(sorted, (first, second) -> {
+			int compare = Integer.compare(first.label.hashCode(), second.label.hashCode());
+			return compare != 0 ? compare : first.label.compareTo(second.label);
+		});
+
+		hashes = new int[sorted.length];
+		for (int i = 0; i < sorted.length; i++)
+			hashes[i] = sorted[i].label.hashCode();
+
+		children = new FrozenChildren();
+		completionIndex = new CompletionIndex<T>(Arrays.asList(ordered));
+	}
+
+	@Override
+	public Iterator<Entry<String, INode<T>>> iterator() {
+		return new Iterator<Entry<String, INode<T>>>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < ordered.length;
+			}
+
+			@Override
+			public Entry<String, INode<T>> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				FrozenCommandNode<T> child = ordered[index++];
+				return new AbstractMap.SimpleImmutableEntry<String, INode<T>>(child.label, child);
+			}
+		};
+	}
+
+	@Override
+	public String getLabel() {
+		return label;
+	}
+
+	@Override
+	public T getExplanation() {
+		return explanation;
+	}
+
+	@Override
+	public void setParent(INode<T> parent) {
+		throw new UnsupportedOperationException("A frozen node cannot be modified");
+	}
+
+	@Override
+	public FrozenCommandNode<T> getParent() {
+		return parent == null ? this : parent;
+	}
+
+	@Override
+	public FrozenCommandNode<T> getRoot() {
+		return root;
+	}
+
+	@Override
+	public NodePath<T> getPath() {
+		return path;
+	}
+
+	@Override
+	public void add(INode<T> node) {
+		throw new UnsupportedOperationException("A frozen node cannot be modified");
+	}
+
+	@Override
+	public void remove(String label) {
+		throw new UnsupportedOperationException("A frozen node cannot be modified");
+	}
+
+	@Override
+	public Map<String, ICommandNode<T>> getChildren() {
+		return children;
+	}
+
+	@Override
+	public List<? extends INode<T>> getChildrenByLabel(String label) {
+		List<FrozenCommandNode<T>> descendants = new ArrayList<FrozenCommandNode<T>>();
+		Deque<FrozenCommandNode<T>> pending = new ArrayDeque<FrozenCommandNode<T>>();
+		pending.push(this);
+		while (!pending.isEmpty()) {
+			FrozenCommandNode<T> node = pending.pop();
+			if (label.equals(ALL_CHILDREN) || node.label.equals(label))
+				descendants.add(node);
+			// Pushed in reverse order so that the children are visited in the order they have been added, depth-first.
+			for (int i = node.ordered.length - 1; i >= 0; i--)
+				pending.push(node.ordered[i]);
+		}
+		return descendants;
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return source.isAvailable();
+	}
+
+	@Override
+	public void setAvailable(Supplier<Boolean> isAvailable) {
+		throw new UnsupportedOperationException("A frozen node cannot be modified");
+	}
+
+	/**
+	 * @return The matcher used to filter the children of this node during a completion, the one of its source when the tree has been
+	 *         frozen.
+	 */
+	public ICompletionMatcher getCompletionMatcher() {
+		return matcher;
+	}
+
+	@Override
+	public List<String> onTabComplete(String[] args) {
+		return onTabComplete(new ArgumentCursor(args));
+	}
+
+	@Override
+	public List<String> onTabComplete(IArgumentCursor args) {
+		if (!completionRoute)
+			return ArgumentCursor.complete(source, args);
+
+		if (!isAvailable())
+			return new ArrayList<String>();
+
+		String argument;
+		try {
+			argument = args.get(0);
+		} catch (IndexOutOfBoundsException e) {
+			return new ArrayList<String>();
+		}
+
+		if (helper != null && argument.equals(helper.getLabel()))
+			return ArgumentCursor.complete(helper, args);
+
+		FrozenCommandNode<T> node = find(argument);
+		if (node == null) {
+			List<String> labels = new ArrayList<String>();
+			if (completionIndex != null)
+				labels = completionIndex.match(getCompletionMatcher(), argument, child -> child.isAvailable());
+			if (helper != null && getCompletionMatcher().matches(helper.getLabel(), CompletionIndex.fold(helper.getLabel()), CompletionIndex.fold(argument)))
+				labels.add(helper.getLabel());
+			return labels;
+		}
+
+		if (!node.isAvailable())
+			return new ArrayList<String>();
+
+		try {
+			return node.onTabComplete(args.next());
+		} catch (IndexOutOfBoundsException e) {
+			return new ArrayList<String>();
+		}
+	}
+
+	@Override
+	public boolean onCommand(String[] args) {
+		return onCommand(new ArgumentCursor(args));
+	}
+
+	@Override
+	public boolean onCommand(IArgumentCursor args) {
+		if (!commandRoute)
+			return ArgumentCursor.execute(source, args);
+
+		if (helper != null && !isAvailable())
+			throw new NotAvailableCommandException(label);
+
+		String argument;
+		try {
+			argument = args.get(0);
+		} catch (IndexOutOfBoundsException e) {
+			// A root without argument is not a valid command, a node without argument is.
+			return helper == null;
+		}
+
+		if (helper != null && argument.equals(helper.getLabel()))
+			return ArgumentCursor.execute(helper, args.next());
+
+		FrozenCommandNode<T> node = find(argument);
+		if (node == null)
+			throw new NodeNotFoundException(label, argument, args.copy(), () -> suggest(argument));
+
+		if (!node.isAvailable())
+			throw new NotAvailableArgumentException(node.label, argument, args.getOffset());
+
+		if (helper != null)
+			return node.onCommand(args.next());
+
+		try {
+			return node.onCommand(args.next());
+		} catch (IndexOutOfBoundsException e) {
+			// Same behavior as CommandNode
+			return true;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("FrozenCommandNode_{label=%s, children=%s}", label, ordered.length);
+	}
+
+	/**
+	 * Get the child associated to the given label using a binary search on the hash code of the labels.
+	 * 
+	 * @param label The label of the child.
+	 * 
+	 * @return The child, or null if there is no child for the given label.
+	 */
+	private FrozenCommandNode<T> find(String label) {
+		int hash = label.hashCode();
+		int low = 0, high = hashes.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (hashes[middle] < hash)
+				low = middle + 1;
+			else if (hashes[middle] > hash)
+				high = middle - 1;
+			else {
+				// Go back to the first label with the same hash code.
+				int index = middle;
+				while (index > 0 && hashes[index - 1] == hash)
+					index--;
+				for (; index < hashes.length && hashes[index] == hash; index++)
+					if (sorted[index].label.equals(label))
+						return sorted[index];
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private List<String> suggest(String argument) {
+		SuggestionIndex<T> index = suggestionIndex;
+		if (index == null)
+			suggestionIndex = index = new SuggestionIndex<T>(Arrays.asList(ordered));
+
+		// A node that is not a Node tolerates as many typos as the root of the tree.
+		Node<T> node = Node.unwrap(source);
+		int distance = (node == null ? Node.unwrap(root.source) : node).getMaxSuggestionDistance(argument);
+		return index.suggest(argument, distance, child -> child.isAvailable());
+	}
+
+	private class FrozenChildren extends AbstractMap<String, ICommandNode<T>> {
+		private Set<Entry<String, ICommandNode<T>>> entries;
+
+		@Override
+		public ICommandNode<T> get(Object key) {
+			return key instanceof String ? find((String) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return ordered.length;
+		}
+
+		@Override
+		public Set<Entry<String, ICommandNode<T>>> entrySet() {
+			if (entries == null) {
+				entries = new AbstractSet<Entry<String, ICommandNode<T>>>() {
+
+					@Override
+					public Iterator<Entry<String, ICommandNode<T>>> iterator() {
+						return new Iterator<Entry<String, ICommandNode<T>>>() {
+							private int index;
+
+							@Override
+							public boolean hasNext() {
+								return index < ordered.length;
+							}
+
+							@Override
+							public Entry<String, ICommandNode<T>> next() {
+								if (!hasNext())
+									throw new NoSuchElementException();
+								FrozenCommandNode<T> child = ordered[index++];
+								return new AbstractMap.SimpleImmutableEntry<String, ICommandNode<T>>(child.label, child);
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return ordered.length;
+					}
+				};
+			}
+			return entries;
+		}
+	}
+}
@@ -1,7 +1,10 @@
 package fr.pederobien.commandtree.impl;
 
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
 import fr.pederobien.commandtree.interfaces.IHelperNode;
 import fr.pederobien.commandtree.interfaces.INode;
 
@@ -43,7 +46,25 @@ public class HelperNode<T> implements IHelperNode<T> {
 	}
 
 	/**
-	 * Filter the element of the given stream in order to return only available element without the element with label "help".
+	 * Get the label of each available child of the given node that matches the given argument. When the node is a {@link Node}, the
+	 * children are matched by its completion index like for a command node, otherwise they are filtered by
+	 * {@link #filter(Stream, String...)}.
+	 * 
+	 * @param node     The node whose the children are completed.
+	 * @param argument The partial argument to complete.
+	 * 
+	 * @return A list of labels.
+	 */
+	protected List<String> complete(INode<T> node, String argument) {
+		Node<T> source = Node.unwrap(node);
+		if (source != null)
+			return source.completeChildren(argument);
+		return filter(node.getChildren().values().stream(), argument).collect(Collectors.toList());
+	}
+
+	/**
+	 * Filter the element of the given stream in order to return only available element without the element with label "help". The
+	 * labels are compared with the filter using the completion matcher of the source node, like for the children of a command node.
 	 * 
 	 * @param stream The stream to filter.
 	 * @param args   The array whose the last element is used as filter.
@@ -51,6 +72,8 @@ public class HelperNode<T> implements IHelperNode<T> {
 	 * @return A filtered stream.
 	 */
 	protected Stream<String> filter(Stream<? extends INode<T>> stream, String... args) {
-		return stream.filter(e -> e.isAvailable()).map(e -> e.getLabel()).filter(str -> str.contains(args[args.length - 1]));
+		ICompletionMatcher matcher = Node.getCompletionMatcher(source);
+		String filter = CompletionIndex.fold(args[args.length - 1]);
+		return stream.filter(e -> e.isAvailable()).map(e -> e.getLabel()).filter(str -> matcher.matches(str, CompletionIndex.fold(str), filter));
 	}
 }
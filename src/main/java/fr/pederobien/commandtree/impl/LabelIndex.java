@@ -0,0 +1,158 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import fr.pederobien.commandtree.interfaces.INode;
+import fr.pederobien.commandtree.interfaces.INodePath;
+
+public class LabelIndex<T> {
+	private Map<String, Set<INode<T>>> nodes;
+	private Set<String> unordered;
+
+	/**
+	 * Creates an empty index that associates a label to the nodes of a tree having this label. The index is updated when a subtree is
+	 * attached to or detached from the tree so that a label lookup does not walk the tree.
+	 */
+	public LabelIndex() {
+		nodes = new HashMap<String, Set<INode<T>>>();
+		unordered = new HashSet<String>();
+	}
+
+	/**
+	 * Creates an index that associates a label to the nodes of a tree having this label.
+	 * 
+	 * @param root The root of the tree to index.
+	 */
+	public LabelIndex(INode<T> root) {
+		this();
+		addAll(root);
+	}
+
+	/**
+	 * Register the given node and all its descendants, in depth-first order.
+	 * 
+	 * @param node The root of the subtree to register.
+	 */
+	public synchronized void addAll(INode<T> node) {
+		// The nodes registered in an empty index are in depth-first order, the others are appended after nodes that may follow them.
+		boolean ordered = nodes.isEmpty();
+
+		Deque<INode<T>> pending = new ArrayDeque<INode<T>>();
+		List<INode<T>> children = new ArrayList<INode<T>>();
+		pending.push(node);
+		while (!pending.isEmpty()) {
+			INode<T> current = pending.pop();
+			Set<INode<T>> registered = nodes.computeIfAbsent(current.getLabel(), label -> new LinkedHashSet<INode<T>>());
+			if (registered.add(current) && !ordered && registered.size() > 1)
+				unordered.add(current.getLabel());
+
+			children.addAll(current.getChildren().values());
+			for (int i = children.size() - 1; i >= 0; i--)
+				pending.push(children.get(i));
+			children.clear();
+		}
+	}
+
+	/**
+	 * Unregister the given node and all its descendants.
+	 * 
+	 * @param node The root of the subtree to unregister.
+	 */
+	public synchronized void removeAll(INode<T> node) {
+		Deque<INode<T>> pending = new ArrayDeque<INode<T>>();
+		pending.push(node);
+		while (!pending.isEmpty()) {
+			INode<T> current = pending.pop();
+			Set<INode<T>> registered = nodes.get(current.getLabel());
+			if (registered != null && registered.remove(current) && registered.isEmpty()) {
+				nodes.remove(current.getLabel());
+				unordered.remove(current.getLabel());
+			}
+
+			for (INode<T> child : current.getChildren().values())
+				pending.push(child);
+		}
+	}
+
+	/**
+	 * Get the nodes registered for the given label, in depth-first order. The complexity is linear in the number of results, unless
+	 * nodes having this label have been added since the last lookup: the results are then sorted once.
+	 * 
+	 * @param label The label to match on.
+	 * 
+	 * @return A new list that contains the registered nodes.
+	 */
+	public synchronized List<INode<T>> get(String label) {
+		Set<INode<T>> registered = nodes.get(label);
+		if (registered == null)
+			return new ArrayList<INode<T>>();
+
+		List<INode<T>> result = new ArrayList<INode<T>>(registered);
+		if (unordered.remove(label)) {
+			result.sort(LabelIndex::compare);
+			registered.clear();
+			registered.addAll(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Compare the position of two nodes of the same tree in depth-first order.
+	 * 
+	 * @param first  The first node to compare.
+	 * @param second The second node to compare.
+	 * 
+	 * @return A negative integer if the first node is visited before the second node, a positive integer if it is visited after.
+	 */
+	private static <T> int compare(INode<T> first, INode<T> second) {
+		INodePath<T> a = first.getPath(), b = second.getPath();
+		while (a.getDepth() > b.getDepth())
+			a = a.getParent();
+		while (b.getDepth() > a.getDepth())
+			b = b.getParent();
+
+		// An ancestor is visited before its descendants.
+		if (same(a.getNode(), b.getNode()))
+			return Integer.compare(first.getPath().getDepth(), second.getPath().getDepth());
+
+		while (a.getParent() != null && !same(a.getParent().getNode(), b.getParent().getNode())) {
+			a = a.getParent();
+			b = b.getParent();
+		}
+
+		if (a.getParent() == null)
+			return 0;
+
+		for (INode<T> child : a.getParent().getNode().getChildren().values()) {
+			if (same(child, a.getNode()))
+				return -1;
+			if (same(child, b.getNode()))
+				return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Check if two references correspond to the same node. The children of a node may be wrappers of the nodes referenced by the
+	 * paths, as the nodes created by a {@link Tree.TreeBuilder}, so the references are compared once unwrapped.
+	 * 
+	 * @param first  The first reference.
+	 * @param second The second reference.
+	 * 
+	 * @return True if both references correspond to the same node.
+	 */
+	private static <T> boolean same(INode<T> first, INode<T> second) {
+		if (first == second)
+			return true;
+		Node<T> node = Node.unwrap(first);
+		return node != null && node == Node.unwrap(second);
+	}
+}
@@ -0,0 +1,152 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.pederobien.commandtree.interfaces.IMetricsSnapshot.ILatency;
+
+public class LatencyHistogram {
+	private static final int SUB_BITS = 2, SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_COUNT;
+
+	private AtomicReferenceArray<LongAdder> buckets;
+	private LongAdder total;
+	private LongAccumulator max;
+
+	/**
+	 * Creates a histogram of durations that can be updated concurrently. Each power of two is divided into four buckets, the counter
+	 * of a bucket is striped across the threads that update it and is only created when a first duration falls into it.
+	 */
+	public LatencyHistogram() {
+		buckets = new AtomicReferenceArray<LongAdder>(BUCKETS);
+		total = new LongAdder();
+		max = new LongAccumulator(Math::max, 0);
+	}
+
+	/**
+	 * Adds a duration to this histogram.
+	 * 
+	 * @param nanos The duration in nanoseconds, a negative duration is recorded as 0.
+	 */
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+
+		int index = index(nanos);
+		LongAdder bucket = buckets.get(index);
+		if (bucket == null && !buckets.compareAndSet(index, null, bucket = new LongAdder()))
+			bucket = buckets.get(index);
+
+		bucket.increment();
+		total.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	/**
+	 * Copies the counters of this histogram. The histogram can be updated while it is copied, the count of the snapshot is the sum of
+	 * the copied buckets so that the percentiles remain consistent.
+	 * 
+	 * @return A snapshot of this histogram.
+	 */
+	public Snapshot snapshot() {
+		long[] counts = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			LongAdder bucket = buckets.get(i);
+			if (bucket != null)
+				count += counts[i] = bucket.sum();
+		}
+		return new Snapshot(counts, count, total.sum(), max.get());
+	}
+
+	/**
+	 * Removes all recorded durations.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			LongAdder bucket = buckets.get(i);
+			if (bucket != null)
+				bucket.reset();
+		}
+		total.reset();
+		max.reset();
+	}
+
+	/**
+	 * @param value A positive duration.
+	 * 
+	 * @return The index of the bucket the duration falls into.
+	 */
+	private static int index(long value) {
+		if (value < SUB_COUNT)
+			return (int) value;
+
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		return ((exponent - SUB_BITS + 1) << SUB_BITS) + (int) ((value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1));
+	}
+
+	/**
+	 * @param index The index of a bucket.
+	 * 
+	 * @return The greatest duration that falls into the bucket.
+	 */
+	private static long upperBound(int index) {
+		if (index < SUB_COUNT)
+			return index;
+
+		int exponent = (index >>> SUB_BITS) + SUB_BITS - 1;
+		long width = 1L << (exponent - SUB_BITS);
+		return (SUB_COUNT + (index & (SUB_COUNT - 1))) * width + width - 1;
+	}
+
+	public static class Snapshot implements ILatency {
+		private long[] counts;
+		private long count, total, max;
+
+		private Snapshot(long[] counts, long count, long total, long max) {
+			this.counts = counts;
+			this.count = count;
+			this.total = total;
+			this.max = max;
+		}
+
+		@Override
+		public long getCount() {
+			return count;
+		}
+
+		@Override
+		public long getTotalNanos() {
+			return total;
+		}
+
+		@Override
+		public long getMaxNanos() {
+			return max;
+		}
+
+		@Override
+		public double getMeanNanos() {
+			return count == 0 ? 0 : (double) total / count;
+		}
+
+		@Override
+		public long getPercentileNanos(double percentile) {
+			if (percentile < 0 || percentile > 1)
+				throw new IllegalArgumentException("The percentile must be between 0 and 1");
+
+			if (count == 0)
+				return 0;
+
+			long rank = Math.max(1, (long) Math.ceil(percentile * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank)
+					return Math.min(upperBound(i), max);
+			}
+			return max;
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+import fr.pederobien.commandtree.interfaces.IDispatchResult.Status;
+import fr.pederobien.commandtree.interfaces.IMetricsSnapshot;
+
+public class MetricsSnapshot implements IMetricsSnapshot {
+	private static final Status[] STATUSES = Status.values();
+	private static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+	private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+
+	private List<INodeMetrics> nodes;
+
+	/**
+	 * Creates a snapshot of the metrics of a tree.
+	 * 
+	 * @param nodes The metrics of each node, sorted by path.
+	 */
+	public MetricsSnapshot(List<INodeMetrics> nodes) {
+		this.nodes = Collections.unmodifiableList(nodes);
+	}
+
+	@Override
+	public List<INodeMetrics> getNodes() {
+		return nodes;
+	}
+
+	@Override
+	public String toText() {
+		StringBuilder builder = new StringBuilder();
+		for (INodeMetrics node : nodes) {
+			builder.append(node.getPath()).append(" :");
+			for (Status status : STATUSES)
+				builder.append(' ').append(status.name().toLowerCase(Locale.ROOT)).append('=').append(node.getCount(status));
+			appendText(builder.append(", command"), node.getCommandLatency());
+			appendText(builder.append(", completion"), node.getCompletionLatency());
+			builder.append(System.lineSeparator());
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toJson() {
+		StringJoiner joiner = new StringJoiner(",", "{\"nodes\":[", "]}");
+		for (INodeMetrics node : nodes) {
+			StringBuilder builder = new StringBuilder("{\"path\":");
+			appendString(builder, node.getPath());
+			for (Status status : STATUSES)
+				builder.append(",\"").append(status.name().toLowerCase(Locale.ROOT)).append("\":").append(node.getCount(status));
+			appendJson(builder.append(",\"command\":"), node.getCommandLatency());
+			appendJson(builder.append(",\"completion\":"), node.getCompletionLatency());
+			joiner.add(builder.append('}'));
+		}
+		return joiner.toString();
+	}
+
+	@Override
+	public String toString() {
+		return toText();
+	}
+
+	private static void appendText(StringBuilder builder, ILatency latency) {
+		builder.append(" [count=").append(latency.getCount());
+		for (int i = 0; i < PERCENTILES.length; i++)
+			builder.append(' ').append(PERCENTILE_NAMES[i]).append('=').append(format(latency.getPercentileNanos(PERCENTILES[i])));
+		builder.append(" max=").append(format(latency.getMaxNanos())).append(']');
+	}
+
+	private static void appendJson(StringBuilder builder, ILatency latency) {
+		builder.append("{\"count\":").append(latency.getCount());
+		builder.append(",\"total\":").append(latency.getTotalNanos());
+		for (int i = 0; i < PERCENTILES.length; i++)
+			builder.append(",\"").append(PERCENTILE_NAMES[i]).append("\":").append(latency.getPercentileNanos(PERCENTILES[i]));
+		builder.append(",\"max\":").append(latency.getMaxNanos()).append('}');
+	}
+
+	private static void appendString(StringBuilder builder, String value) {
+		builder.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char character = value.charAt(i);
+			if (character == '"' || character == '\\')
+				builder.append('\\').append(character);
+			else if (character < 0x20)
+				builder.append(String.format("\\u%04x", (int) character));
+			else
+				builder.append(character);
+		}
+		builder.append('"');
+	}
+
+	/**
+	 * @param nanos A duration in nanoseconds.
+	 * 
+	 * @return The duration with the most suited unit, for example "1.25ms".
+	 */
+	private static String format(long nanos) {
+		if (nanos < 1000)
+			return nanos + "ns";
+		if (nanos < 1000000)
+			return String.format(Locale.ROOT, "%.2fus", nanos / 1e3);
+		if (nanos < 1000000000)
+			return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+		return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+	}
+
+	public static class NodeMetrics implements INodeMetrics {
+		private String path;
+		private long[] statuses;
+		private ILatency command, completion;
+
+		/**
+		 * Creates the snapshot of the metrics of a node.
+		 * 
+		 * @param path       The labels from the root to the node, separated by a space.
+		 * @param statuses   The number of commands for each status, indexed by the ordinal of the status.
+		 * @param command    The latency of the commands.
+		 * @param completion The latency of the completions.
+		 */
+		public NodeMetrics(String path, long[] statuses, ILatency command, ILatency completion) {
+			this.path = path;
+			this.statuses = statuses;
+			this.command = command;
+			this.completion = completion;
+		}
+
+		@Override
+		public String getPath() {
+			return path;
+		}
+
+		@Override
+		public long getInvocations() {
+			long invocations = 0;
+			for (long count : statuses)
+				invocations += count;
+			return invocations;
+		}
+
+		@Override
+		public long getCount(Status status) {
+			return statuses[status.ordinal()];
+		}
+
+		@Override
+		public long getFailures() {
+			return getInvocations() - getCount(Status.SUCCESS);
+		}
+
+		@Override
+		public ILatency getCommandLatency() {
+			return command;
+		}
+
+		@Override
+		public ILatency getCompletionLatency() {
+			return completion;
+		}
+	}
+}
@@ -3,18 +3,21 @@ package fr.pederobien.commandtree.impl;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.RandomAccess;
 import java.util.StringJoiner;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -25,18 +28,41 @@ import fr.pederobien.commandtree.events.NodeAvailableChangePostEvent;
 import fr.pederobien.commandtree.events.NodeRemovePostEvent;
 import fr.pederobien.commandtree.exceptions.BooleanParseException;
 import fr.pederobien.commandtree.exceptions.NodeRegisterException;
+import fr.pederobien.commandtree.interfaces.IAsyncDispatcher;
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
+import fr.pederobien.commandtree.interfaces.IDispatchListener;
 import fr.pederobien.commandtree.interfaces.INode;
+import fr.pederobien.commandtree.interfaces.INodeEventDispatcher;
 import fr.pederobien.utils.event.EventManager;
 
 public class Node<T> implements INode<T> {
 	private static final String ALL_CHILDREN = "*";
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<Node> PATH_VERSION = AtomicLongFieldUpdater.newUpdater(Node.class, "pathVersion");
+
+	/**
+	 * Incremented each time a node of any tree changes of parent. A cached path checked at the current epoch is used without check.
+	 */
+	private static final AtomicLong PATH_EPOCH = new AtomicLong();
+
+	/**
+	 * The availability of the nodes created without availability.
+	 */
+	static final Supplier<Boolean> NEVER_AVAILABLE = () -> false;
 
 	private String label;
 	private T explanation;
-	private INode<T> parent;
+	private volatile INode<T> parent;
 	private Supplier<Boolean> isAvailable;
-	private Map<String, INode<T>> nodes;
+	private volatile ChildMap<INode<T>> nodes;
 	private AtomicBoolean availableValue;
+	private volatile CompletionIndex<T> completionIndex;
+	private ICompletionMatcher completionMatcher;
+	private volatile SuggestionIndex<T> suggestionIndex;
+	private volatile NodePath<T> path;
+	private volatile long pathVersion;
+	private volatile AvailabilityCache.Stamp availableStamp;
+	private volatile TreeSettings settings;
 
 	/**
 	 * Creates a node specified by the given parameters.
@@ -48,7 +74,7 @@ public class Node<T> implements INode<T> {
 	protected Node(String label, T explanation, Supplier<Boolean> isAvailable) {
 		this.label = label;
 		this.explanation = explanation;
-		this.nodes = new LinkedHashMap<String, INode<T>>();
+		this.nodes = ChildMap.empty();
 		this.isAvailable = isAvailable;
 
 		availableValue = new AtomicBoolean(isAvailable.get());
@@ -61,7 +87,7 @@ public class Node<T> implements INode<T> {
 	 * @param explanation The explanation associated to this node.
 	 */
 	protected Node(String label, T explanation) {
-		this(label, explanation, () -> false);
+		this(label, explanation, NEVER_AVAILABLE);
 	}
 
 	@Override
@@ -82,6 +108,13 @@ public class Node<T> implements INode<T> {
 	@Override
 	public void setParent(INode<T> parent) {
 		this.parent = parent;
+		// The paths of the descendants are checked lazily against the version of this node.
+		PATH_VERSION.incrementAndGet(this);
+		PATH_EPOCH.incrementAndGet();
+		// Only the top node of a tree maintains a label index.
+		TreeSettings settings = this.settings;
+		if (settings != null)
+			settings.setLabelIndex(null);
 	}
 
 	@Override
@@ -91,54 +124,219 @@ public class Node<T> implements INode<T> {
 
 	@Override
 	public INode<T> getRoot() {
-		return parent == null ? this : parent.getRoot();
+		return getPath().getRoot();
+	}
+
+	/**
+	 * {@inheritDoc} The path is cached with the version of each of its nodes, incremented each time a node changes of parent. A cached
+	 * path is used without check while no node has changed of parent since it has last been checked, otherwise the versions of its
+	 * nodes are compared with their current version. Only the paths of this node and of its ancestors that have not been checked
+	 * since the last change are computed again.
+	 */
+	@Override
+	public NodePath<T> getPath() {
+		// The epoch is read before the versions: a node moved during the check increments the epoch afterwards.
+		long epoch = PATH_EPOCH.get();
+		NodePath<T> current = path;
+		if (current != null && isValid(current, epoch))
+			return current;
+
+		// The version of each node is read before its parent, a path computed while the node is moved is stored with a stale version.
+		List<Node<T>> nodes = new ArrayList<Node<T>>();
+		long[] versions = new long[8];
+		NodePath<T> ancestor = null;
+		boolean checked = true;
+		for (Node<T> node = this; node != null;) {
+			if (nodes.size() == versions.length)
+				versions = Arrays.copyOf(versions, versions.length * 2);
+			versions[nodes.size()] = node.pathVersion;
+			nodes.add(node);
+
+			INode<T> parent = node.parent;
+			node = null;
+			if (parent instanceof Node<?>) {
+				Node<T> next = (Node<T>) parent;
+				NodePath<T> cached = next.path;
+				if (cached != null && cached.getCheckedEpoch() == epoch)
+					ancestor = cached;
+				else
+					node = next;
+			} else if (parent != null) {
+				// The nodes that are not a Node have no version, such a path is computed again at each call.
+				ancestor = NodePath.of(parent);
+				checked = false;
+			}
+		}
+
+		for (int i = nodes.size() - 1; i >= 0; i--) {
+			ancestor = new NodePath<T>(nodes.get(i), ancestor, versions[i]);
+			if (checked)
+				ancestor.check(epoch);
+			nodes.get(i).path = ancestor;
+		}
+		return ancestor;
 	}
 
 	@Override
 	public void add(INode<T> node) {
-		INode<T> register = nodes.get(node.getLabel());
-		if (register != null)
-			throw new NodeRegisterException(register);
+		if (isConcurrent()) {
+			synchronized (this) {
+				register(node, true);
+			}
+		} else
+			register(node, false);
 
-		nodes.put(node.getLabel(), node);
 		node.setParent(this);
-		EventManager.callEvent(new NodeAddPostEvent(node, this));
+
+		LabelIndex<T> index = getSettings().getLabelIndex();
+		if (index != null)
+			index.addAll(node);
+
+		getEventDispatcher().dispatch(new NodeAddPostEvent(node, this));
 	}
 
 	@Override
 	public void remove(String label) {
-		INode<T> remove = nodes.remove(label);
+		INode<T> remove;
+		if (isConcurrent()) {
+			synchronized (this) {
+				remove = unregister(label, true);
+			}
+		} else
+			remove = unregister(label, false);
+
 		if (remove != null) {
+			Node<T> top = getTopNode();
+			LabelIndex<T> index = settingsOf(top).getLabelIndex();
+			if (index != null)
+				index.removeAll(remove);
+			if (getCompletionCache() != null)
+				invalidateCompletions(remove);
+
 			remove.setParent(null);
-			EventManager.callEvent(new NodeRemovePostEvent(remove, this));
+			top.onRemove(remove);
+			getEventDispatcher().dispatch(new NodeRemovePostEvent(remove, this));
 		}
 	}
 
+	/**
+	 * {@inheritDoc} When the tree is concurrent, the returned map is a snapshot of the children: it is not updated when a child is
+	 * added or removed afterwards.
+	 */
 	@Override
 	public Map<String, ? extends INode<T>> getChildren() {
 		return Collections.unmodifiableMap(nodes);
 	}
 
+	/**
+	 * {@inheritDoc} The nodes of a tree are registered in a {@link LabelIndex} held by its top node, built on the first call and
+	 * updated when a subtree is added or removed, so that the lookup of a label does not walk the tree. The nodes are returned in
+	 * depth-first order.
+	 */
 	@Override
 	public List<? extends INode<T>> getChildrenByLabel(String label) {
-		return getDescendants(this, label);
+		if (label.equals(ALL_CHILDREN))
+			return descendants().collect(Collectors.toList());
+
+		Node<T> top = getTopNode();
+		TreeSettings settings = getOrCreateSettings(top);
+		LabelIndex<T> index = settings.getLabelIndex();
+		if (index == null) {
+			synchronized (top) {
+				index = settings.getLabelIndex();
+				if (index == null) {
+					index = new LabelIndex<T>();
+					// The index is published before the tree is walked: a node added concurrently anywhere in the tree is registered once
+					// the walk is done instead of being missed by both.
+					synchronized (index) {
+						settings.setLabelIndex(index);
+						index.addAll(top);
+					}
+				}
+			}
+		}
+
+		List<INode<T>> matches = index.get(label);
+		if (top == this)
+			return matches;
+
+		List<INode<T>> descendants = new ArrayList<INode<T>>();
+		if (getLabel().equals(label))
+			descendants.add(this);
+
+		NodePath<T> path = getPath();
+		for (INode<T> match : matches)
+			if (path.isAncestorOf(match.getPath()))
+				descendants.add(match);
+		return descendants;
 	}
 
 	@Override
 	public boolean isAvailable() {
-		boolean available = isAvailable.get();
+		TreeSettings settings = getSettings();
+		AvailabilityCache cache = settings.getAvailabilityCache();
+		AvailabilityCache.Stamp stamp = availableStamp;
+		if (cache != null && cache.isValid(stamp))
+			return stamp.isAvailable();
+
+		if (cache != null)
+			stamp = cache.stamp();
+
+		IDispatchListener listener = settings.getDispatchListener();
+		boolean available;
+		if (listener == null)
+			available = isAvailable.get();
+		else {
+			long start = System.nanoTime();
+			available = isAvailable.get();
+			listener.onAvailability(this, available, System.nanoTime() - start);
+		}
+
 		if (availableValue.compareAndSet(!available, available))
-			EventManager.callEvent(new NodeAvailableChangePostEvent(this));
+			settings.getEventDispatcher().dispatch(new NodeAvailableChangePostEvent(this));
+
+		if (cache != null)
+			availableStamp = stamp.with(available);
 		return availableValue.get();
 	}
 
 	@Override
 	public void setAvailable(Supplier<Boolean> isAvailable) {
 		this.isAvailable = isAvailable;
+		// The cached availability no longer corresponds to the supplier.
+		availableStamp = null;
 		// In order to throw a availability change event.
 		isAvailable();
 	}
 
+	/**
+	 * @return The matcher used to filter the children of this node during a completion. If no matcher has been set for this node,
+	 *         the matcher of the tree is returned.
+	 */
+	public ICompletionMatcher getCompletionMatcher() {
+		ICompletionMatcher matcher = completionMatcher;
+		return matcher != null ? matcher : getSettings().getCompletionMatcher();
+	}
+
+	/**
+	 * Set the matcher used to filter the children of this node during a completion, instead of the matcher of the tree. In order to
+	 * configure a whole tree, the matcher should be set on its root.
+	 * 
+	 * @param matcher The new matcher, or null to use the matcher of the tree.
+	 */
+	public void setCompletionMatcher(ICompletionMatcher matcher) {
+		this.completionMatcher = matcher;
+	}
+
+	/**
+	 * Set the matcher used to filter the children of the nodes of the tree this node belongs to that have no matcher.
+	 * 
+	 * @param matcher The matcher, or null to use {@link CompletionMatcher#SUBSTRING}.
+	 */
+	protected void setDefaultCompletionMatcher(ICompletionMatcher matcher) {
+		getOrCreateSettings().setCompletionMatcher(matcher);
+	}
+
 	/**
 	 * @param <U> The type of element in the empty list.
 	 * @return An empty array list.
@@ -162,6 +360,307 @@ public class Node<T> implements INode<T> {
 		return nodes.values().stream().filter(node -> node.isAvailable());
 	}
 
+	/**
+	 * Get the label of each available child that matches the given argument according to the matcher returned by
+	 * {@link #getCompletionMatcher()}. The children are registered in a {@link CompletionIndex} built on the first call and updated
+	 * when a child is added or removed, only the children matching the argument are checked for availability. When the tree has a
+	 * completion cache, the index also keeps the matching children whatever their availability, which is checked again at each call.
+	 * 
+	 * @param argument The partial argument to complete.
+	 * 
+	 * @return A list of labels in the order the children have been added.
+	 */
+	protected List<String> completeChildren(String argument) {
+		CompletionIndex<T> index = completionIndex;
+		if (index == null) {
+			// Built under the lock used by concurrent modifications in order to be consistent with the current children.
+			synchronized (this) {
+				if (completionIndex == null)
+					completionIndex = new CompletionIndex<T>(nodes.values());
+				index = completionIndex;
+			}
+		}
+		return index.match(getCompletionMatcher(), argument, node -> node.isAvailable(), getCompletionCache());
+	}
+
+	/**
+	 * @return True if the children of this node are stored in a copy-on-write map. The mode is held by the top node of the tree.
+	 */
+	protected boolean isConcurrent() {
+		return getSettings().isConcurrent();
+	}
+
+	/**
+	 * Set the way the children of the nodes of the tree this node belongs to are stored. In concurrent mode, the map of the children
+	 * is never modified: it is copied, updated and replaced atomically when a child is added or removed. Threads that dispatch or
+	 * complete commands read the current map without lock while the modifications are serialized.
+	 * 
+	 * @param concurrent True to store the children in a copy-on-write map.
+	 */
+	protected void setConcurrent(boolean concurrent) {
+		getOrCreateSettings().setConcurrent(concurrent);
+	}
+
+	/**
+	 * @return The cache used to store the completions of the nodes of this tree, or null if there is no cache. The cache is held by
+	 *         the top node of the tree.
+	 */
+	protected CompletionCache getCompletionCache() {
+		return getSettings().getCompletionCache();
+	}
+
+	/**
+	 * Set the cache used to store the completions of the nodes of the tree this node belongs to.
+	 * 
+	 * @param completionCache The cache, or null to disable the cache.
+	 */
+	protected void setCompletionCache(CompletionCache completionCache) {
+		getOrCreateSettings().setCompletionCache(completionCache);
+	}
+
+	/**
+	 * @return The policy used to cache the availability of the nodes of this tree, or null if the supplier of a node is evaluated at
+	 *         each call to {@link #isAvailable()}. The policy is held by the top node of the tree.
+	 */
+	protected AvailabilityCache getAvailabilityCache() {
+		return getSettings().getAvailabilityCache();
+	}
+
+	/**
+	 * Set the policy used to cache the availability of the nodes of the tree this node belongs to. The availabilities cached by the
+	 * previous policy are not used by the new one.
+	 * 
+	 * @param availabilityCache The policy, or null to evaluate the supplier at each call to {@link #isAvailable()}.
+	 */
+	protected void setAvailabilityCache(AvailabilityCache availabilityCache) {
+		getOrCreateSettings().setAvailabilityCache(availabilityCache);
+	}
+
+	/**
+	 * @return The dispatcher used to notify the events thrown by the nodes of this tree. The dispatcher is held by the top node of
+	 *         the tree, by default the events are given synchronously to the {@link EventManager}.
+	 */
+	protected INodeEventDispatcher getEventDispatcher() {
+		return getSettings().getEventDispatcher();
+	}
+
+	/**
+	 * Set the dispatcher used to notify the events thrown by the nodes of the tree this node belongs to.
+	 * 
+	 * @param eventDispatcher The dispatcher, or null to give the events synchronously to the {@link EventManager}.
+	 */
+	protected void setEventDispatcher(INodeEventDispatcher eventDispatcher) {
+		getOrCreateSettings().setEventDispatcher(eventDispatcher);
+	}
+
+	/**
+	 * @return The dispatcher used to run the asynchronous executors of the nodes of this tree. The dispatcher is held by the top node
+	 *         of the tree, by default it is {@link AsyncDispatcher#getDefault()}.
+	 */
+	protected IAsyncDispatcher getAsyncDispatcher() {
+		return getSettings().getAsyncDispatcher();
+	}
+
+	/**
+	 * Set the dispatcher used to run the asynchronous executors of the nodes of the tree this node belongs to.
+	 * 
+	 * @param asyncDispatcher The dispatcher, or null to use {@link AsyncDispatcher#getDefault()}.
+	 */
+	protected void setAsyncDispatcher(IAsyncDispatcher asyncDispatcher) {
+		getOrCreateSettings().setAsyncDispatcher(asyncDispatcher);
+	}
+
+	/**
+	 * @return The listener notified while the tree is walked, or null if there is no listener. The listener is held by the top node
+	 *         of the tree.
+	 */
+	protected IDispatchListener getDispatchListener() {
+		return getSettings().getDispatchListener();
+	}
+
+	/**
+	 * Set the listener notified while the tree this node belongs to is walked.
+	 * 
+	 * @param dispatchListener The listener, or null to remove it.
+	 */
+	protected void setDispatchListener(IDispatchListener dispatchListener) {
+		getOrCreateSettings().setDispatchListener(dispatchListener);
+	}
+
+	/**
+	 * Called on the top node of a tree when a subtree is removed from the tree, once it has been detached from its parent.
+	 * 
+	 * @param node The root of the removed subtree.
+	 */
+	protected void onRemove(INode<T> node) {
+	}
+
+	/**
+	 * Drops the completions cached by the nodes of the given subtree, so that they are no longer counted by the completion cache of
+	 * the tree.
+	 * 
+	 * @param node The root of the removed subtree.
+	 */
+	private static <T> void invalidateCompletions(INode<T> node) {
+		Deque<INode<T>> pending = new ArrayDeque<INode<T>>();
+		pending.push(node);
+		while (!pending.isEmpty()) {
+			Node<T> current = unwrap(pending.pop());
+			if (current == null)
+				continue;
+
+			CompletionIndex<T> index = current.completionIndex;
+			if (index != null)
+				index.invalidate();
+			for (INode<T> child : current.nodes.values())
+				pending.push(child);
+		}
+	}
+
+	/**
+	 * @return The supplier that computes the availability of this node.
+	 */
+	Supplier<Boolean> getAvailability() {
+		return isAvailable;
+	}
+
+	/**
+	 * Register the given node as child of this node without updating the label index of the tree and without dispatching a
+	 * {@link NodeAddPostEvent}. It should only be called while building a tree that is not yet visible to other threads.
+	 * 
+	 * @param node The node to attach.
+	 * 
+	 * @throws NodeRegisterException If a node is already registered for the label of the given node.
+	 */
+	void attach(INode<T> node) {
+		register(node, false);
+		node.setParent(this);
+	}
+
+	/**
+	 * Register the given node as child of this node.
+	 * 
+	 * @param node        The node to register.
+	 * @param copyOnWrite True if the children and the indexes should be copied instead of modified.
+	 * 
+	 * @throws NodeRegisterException If a node is already registered for the label of the given node.
+	 */
+	private void register(INode<T> node, boolean copyOnWrite) {
+		INode<T> register = nodes.get(node.getLabel());
+		if (register != null)
+			throw new NodeRegisterException(register);
+
+		CompletionIndex<T> index = completionIndex;
+		if (copyOnWrite) {
+			ChildMap<INode<T>> copy = new ChildMap<INode<T>>(nodes);
+			copy.put(node.getLabel(), node);
+			nodes = copy;
+
+			if (index != null) {
+				CompletionIndex<T> indexCopy = new CompletionIndex<T>(index);
+				indexCopy.add(node);
+				completionIndex = indexCopy;
+				index.invalidate();
+			}
+
+			SuggestionIndex<T> suggestions = suggestionIndex;
+			if (suggestions != null) {
+				suggestions = new SuggestionIndex<T>(suggestions);
+				suggestions.add(node);
+				suggestionIndex = suggestions;
+			}
+		} else {
+			// The nodes without children share the same empty map.
+			ChildMap<INode<T>> children = nodes.mutable();
+			children.put(node.getLabel(), node);
+			nodes = children;
+			if (index != null)
+				index.add(node);
+			SuggestionIndex<T> suggestions = suggestionIndex;
+			if (suggestions != null)
+				suggestions.add(node);
+		}
+	}
+
+	/**
+	 * Unregister the child associated to the given label.
+	 * 
+	 * @param label       The label of the child to unregister.
+	 * @param copyOnWrite True if the children and the indexes should be copied instead of modified.
+	 * 
+	 * @return The unregistered child, or null if there is no child for the given label.
+	 */
+	private INode<T> unregister(String label, boolean copyOnWrite) {
+		if (!nodes.containsKey(label))
+			return null;
+
+		INode<T> remove;
+		CompletionIndex<T> index = completionIndex;
+		SuggestionIndex<T> suggestions = suggestionIndex;
+		if (copyOnWrite) {
+			ChildMap<INode<T>> copy = new ChildMap<INode<T>>(nodes);
+			remove = copy.remove(label);
+			nodes = copy.isEmpty() ? ChildMap.empty() : copy;
+
+			if (index != null) {
+				CompletionIndex<T> indexCopy = new CompletionIndex<T>(index);
+				indexCopy.remove(label);
+				completionIndex = indexCopy;
+				index.invalidate();
+			}
+			if (suggestions != null) {
+				suggestions = new SuggestionIndex<T>(suggestions);
+				suggestions.remove(remove);
+			}
+		} else {
+			remove = nodes.remove(label);
+			if (nodes.isEmpty())
+				nodes = ChildMap.empty();
+			if (index != null)
+				index.remove(label);
+			if (suggestions != null)
+				suggestions.remove(remove);
+		}
+
+		// The removed labels are kept in the BK-tree, it is rebuilt on the next suggestion once they are too many.
+		if (suggestions != null)
+			suggestionIndex = suggestions.needsRebuild() ? null : suggestions;
+		return remove;
+	}
+
+	/**
+	 * Get the label of each available child whose label is close to the given argument, ignoring case. The children are registered
+	 * in a {@link SuggestionIndex} built on the first call, updated when a child is added or removed, and rebuilt once most of its
+	 * entries correspond to removed children.
+	 * 
+	 * @param argument The argument that does not correspond to any child.
+	 * 
+	 * @return A list of labels sorted by edit distance.
+	 */
+	protected List<String> suggestChildren(String argument) {
+		SuggestionIndex<T> index = suggestionIndex;
+		if (index == null) {
+			synchronized (this) {
+				if (suggestionIndex == null)
+					suggestionIndex = new SuggestionIndex<T>(nodes.values());
+				index = suggestionIndex;
+			}
+		}
+		return index.suggest(argument, getMaxSuggestionDistance(argument), node -> node.isAvailable());
+	}
+
+	/**
+	 * Get the maximum edit distance between an argument and the label of a child to suggest. By default, one typo is tolerated for
+	 * each group of three characters, between 1 and 3 typos.
+	 * 
+	 * @param argument The argument that does not correspond to any child.
+	 * 
+	 * @return The maximum number of insertions, deletions or substitutions.
+	 */
+	protected int getMaxSuggestionDistance(String argument) {
+		return Math.max(1, Math.min(3, argument.length() / 3));
+	}
+
 	/**
 	 * Filter each string from the given stream using condition : <code>str.contains(filter)</code>
 	 * 
@@ -348,49 +847,39 @@ public class Node<T> implements INode<T> {
 	 * @return True if the given string contains a parsable integer false otherwise.
 	 */
 	protected boolean isStrictInt(String number) {
-		try {
-			getInt(number);
-		} catch (NumberFormatException e) {
-			return false;
-		}
-		return true;
+		return ArgumentType.integer().isValid(number);
 	}
 
 	/**
-	 * Parses the string argument as a signed decimal double.
+	 * Checks if the string argument is a signed decimal double, with an optional fraction and an optional exponent. The string is not
+	 * given to {@link Double#valueOf(String)}, no exception is thrown when it is not a number.
 	 *
-	 * @param number the string to be parsed.
+	 * @param number the string to check.
 	 * 
-	 * @return True if the given string contains a parsable double OR is empty, false otherwise.
+	 * @return True if the given string contains a parsable double OR is empty OR is a minus sign, false otherwise.
 	 * 
-	 * @throws NullPointerException  if the string is null.
-	 * @throws NumberFormatException if the string does not contain a parsable {@code double}.
+	 * @throws NullPointerException if the string is null.
 	 * 
-	 * @see java.lang.Double#valueOf(String)
+	 * @see ArgumentType#decimal()
 	 */
 	protected boolean isNotStrictDouble(String number) {
 		return number.equals("") || number.equals("-") || isStrictDouble(number);
 	}
 
 	/**
-	 * Parses the string argument as a signed decimal double.
+	 * Checks if the string argument is a signed decimal double, with an optional fraction and an optional exponent. The string is not
+	 * given to {@link Double#valueOf(String)}, no exception is thrown when it is not a number.
 	 *
-	 * @param number the string to be parsed.
+	 * @param number the string to check.
 	 * 
 	 * @return True if the given string contains a parsable double false otherwise.
 	 * 
-	 * @throws NullPointerException  if the string is null.
-	 * @throws NumberFormatException if the string does not contain a parsable {@code double}.
+	 * @throws NullPointerException if the string is null.
 	 * 
-	 * @see java.lang.Double#valueOf(String)
+	 * @see ArgumentType#decimal()
 	 */
 	protected boolean isStrictDouble(String number) {
-		try {
-			getDouble(number);
-		} catch (NumberFormatException e) {
-			return false;
-		}
-		return true;
+		return ArgumentType.decimal().isValid(number);
 	}
 
 	/**
@@ -414,12 +903,7 @@ public class Node<T> implements INode<T> {
 	 * @return True if the given string contains a parsable time, false otherwise.
 	 */
 	protected boolean isStrictTime(String time) {
-		try {
-			getTime(time);
-			return true;
-		} catch (DateTimeParseException e) {
-			return false;
-		}
+		return ArgumentType.time().isValid(time);
 	}
 
 	/**
@@ -445,12 +929,7 @@ public class Node<T> implements INode<T> {
 	 * @return True if the given string contains a parsable time, false otherwise.
 	 */
 	protected boolean isStrictTime(String time, DateTimeFormatter formatter) {
-		try {
-			LocalTime.parse(time, formatter);
-			return true;
-		} catch (DateTimeParseException e) {
-			return false;
-		}
+		return ArgumentType.time(formatter).isValid(time);
 	}
 
 	/**
@@ -602,24 +1081,117 @@ public class Node<T> implements INode<T> {
 	}
 
 	/**
-	 * Iterate over the children of this node in order to get all children that matches with the given label.
+	 * Get the suggestions of the given node, that may be wrapped, for an argument that has not been found.
 	 * 
-	 * @param node  The node used to get its children.
-	 * @param label The label to match on.
+	 * @param node     The node that has no child for the argument.
+	 * @param argument The argument that has not been found.
 	 * 
-	 * @return A list that contains all descendants
+	 * @return A list of labels close to the argument, empty if the node is not a {@link Node}.
 	 */
-	private List<? extends INode<T>> getDescendants(INode<T> node, String label) {
-		List<INode<T>> children = new ArrayList<INode<T>>();
-		if (label.equals(ALL_CHILDREN) || node.getLabel().equals(label))
-			children.add(node);
+	static <T> List<String> suggestChildren(INode<T> node, String argument) {
+		Node<T> source = unwrap(node);
+		return source == null ? new ArrayList<String>() : source.suggestChildren(argument);
+	}
 
-		for (INode<T> child : node.getChildren().values())
-			if (label.equals(ALL_CHILDREN) || node.getLabel().equals(label))
-				children.add(child);
+	/**
+	 * @param node The node, that may be wrapped.
+	 * 
+	 * @return The matcher used to filter the children of the given node during a completion, {@link CompletionMatcher#SUBSTRING} if
+	 *         it is not a {@link Node}.
+	 */
+	static <T> ICompletionMatcher getCompletionMatcher(INode<T> node) {
+		Node<T> source = unwrap(node);
+		return source == null ? CompletionMatcher.SUBSTRING : source.getCompletionMatcher();
+	}
+
+	/**
+	 * @param node The node to unwrap.
+	 * 
+	 * @return The node wrapped by the given node, or the given node if it is not wrapped, or null if it is not a {@link Node}.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Node<T> unwrap(INode<T> node) {
+		INode<T> source = node;
+		while (source instanceof CommandNodeWrapper<?>)
+			source = ((CommandNodeWrapper<T>) source).getSource();
+		return source instanceof Node<?> ? (Node<T>) source : null;
+	}
+
+	/**
+	 * Check if a cached path is still valid. It is valid if it has already been checked at the given epoch, or if each of its nodes
+	 * has the version for which it has been computed.
+	 * 
+	 * @param path  The cached path.
+	 * @param epoch The current epoch.
+	 * 
+	 * @return True if the path can be used.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> boolean isValid(NodePath<T> path, long epoch) {
+		if (path.getCheckedEpoch() == epoch)
+			return true;
+
+		for (NodePath<T> current = path; current != null; current = current.getParent())
+			if (current.getVersion() < 0 || ((Node<T>) current.getNode()).pathVersion != current.getVersion())
+				return false;
+
+		path.check(epoch);
+		return true;
+	}
+
+	/**
+	 * @return The settings of the tree this node belongs to, held by its top node. The reference to the top node is cached with the
+	 *         path of this node, so the settings are resolved without walking the ancestors.
+	 */
+	private TreeSettings getSettings() {
+		return settingsOf(getTopNode());
+	}
+
+	/**
+	 * @return The settings held by the top node of the tree this node belongs to, created if the tree has never been configured.
+	 */
+	private TreeSettings getOrCreateSettings() {
+		return getOrCreateSettings(getTopNode());
+	}
+
+	/**
+	 * @param top The top node of a tree.
+	 * 
+	 * @return The settings held by the given node, or the default settings if the tree has never been configured.
+	 */
+	private static TreeSettings settingsOf(Node<?> top) {
+		TreeSettings settings = top.settings;
+		return settings == null ? TreeSettings.DEFAULT : settings;
+	}
+
+	/**
+	 * @param top The top node of a tree.
+	 * 
+	 * @return The settings held by the given node, created if the tree has never been configured.
+	 */
+	private static TreeSettings getOrCreateSettings(Node<?> top) {
+		TreeSettings settings = top.settings;
+		if (settings == null) {
+			synchronized (top) {
+				if (top.settings == null)
+					top.settings = new TreeSettings();
+				settings = top.settings;
+			}
+		}
+		return settings;
+	}
+
+	/**
+	 * @return The node of this tree that has no parent, following the parent of each node while it is a {@link Node}.
+	 */
+	private Node<T> getTopNode() {
+		INode<T> root = getPath().getRoot();
+		if (root instanceof Node<?>)
+			return (Node<T>) root;
 
-		for (INode<T> child : node.getChildren().values())
-			children.addAll(getDescendants(child, label));
-		return children;
+		Node<T> node = this;
+		for (INode<T> parent = node.parent; parent instanceof Node<?>; parent = node.parent)
+			node = (Node<T>) parent;
+		return node;
 	}
 }
@@ -0,0 +1,145 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+import fr.pederobien.commandtree.interfaces.INode;
+import fr.pederobien.commandtree.interfaces.INodePath;
+
+public class NodePath<T> implements INodePath<T> {
+	private INode<T> node;
+	private NodePath<T> parent;
+	private INode<T> root;
+	private int depth;
+	private long version;
+	private volatile long epoch;
+
+	/**
+	 * Creates the path of a node from the path of its parent. A path never changes, a new path is created when a node is moved.
+	 * 
+	 * @param node   The node at the end of the path.
+	 * @param parent The path of the parent node, or null if the node has no parent.
+	 */
+	public NodePath(INode<T> node, NodePath<T> parent) {
+		this(node, parent, -1);
+	}
+
+	/**
+	 * Creates the path of a node from the path of its parent.
+	 * 
+	 * @param node    The node at the end of the path.
+	 * @param parent  The path of the parent node, or null if the node has no parent.
+	 * @param version The version of the node for which this path has been computed.
+	 */
+	NodePath(INode<T> node, NodePath<T> parent, long version) {
+		this.node = node;
+		this.parent = parent;
+		this.root = parent == null ? node : parent.root;
+		this.depth = parent == null ? 0 : parent.depth + 1;
+		this.version = version;
+		this.epoch = -1;
+	}
+
+	/**
+	 * Creates the path of the given node following the parent of each node up to a node that has no parent.
+	 * 
+	 * @param node The node at the end of the path.
+	 * 
+	 * @return The path of the given node.
+	 */
+	public static <T> NodePath<T> of(INode<T> node) {
+		List<INode<T>> nodes = new ArrayList<INode<T>>();
+		INode<T> current = node;
+		nodes.add(current);
+		for (INode<T> parent = current.getParent(); parent != current; parent = current.getParent()) {
+			nodes.add(parent);
+			current = parent;
+		}
+
+		NodePath<T> path = null;
+		for (int i = nodes.size() - 1; i >= 0; i--)
+			path = new NodePath<T>(nodes.get(i), path);
+		return path;
+	}
+
+	@Override
+	public INode<T> getNode() {
+		return node;
+	}
+
+	@Override
+	public NodePath<T> getParent() {
+		return parent;
+	}
+
+	@Override
+	public INode<T> getRoot() {
+		return root;
+	}
+
+	@Override
+	public int getDepth() {
+		return depth;
+	}
+
+	@Override
+	public boolean isAncestorOf(INodePath<T> path) {
+		if (path.getRoot() != root || path.getDepth() <= depth)
+			return false;
+
+		INodePath<T> ancestor = path;
+		for (int i = path.getDepth() - depth; i > 0; i--)
+			ancestor = ancestor.getParent();
+		return ancestor.getNode() == node;
+	}
+
+	@Override
+	public List<INode<T>> getNodes() {
+		List<INode<T>> nodes = new ArrayList<INode<T>>(Collections.nCopies(depth + 1, (INode<T>) null));
+		for (NodePath<T> path = this; path != null; path = path.parent)
+			nodes.set(path.depth, path.node);
+		return Collections.unmodifiableList(nodes);
+	}
+
+	@Override
+	public List<String> getLabels() {
+		String[] labels = new String[depth + 1];
+		for (NodePath<T> path = this; path != null; path = path.parent)
+			labels[path.depth] = path.node.getLabel();
+		return Collections.unmodifiableList(Arrays.asList(labels));
+	}
+
+	/**
+	 * @return The version of the node for which this path has been computed, -1 if the path is not cached.
+	 */
+	long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return The epoch at which the versions of the nodes of this path have last been checked, -1 if they have never been checked.
+	 */
+	long getCheckedEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * Records that the versions of the nodes of this path have been checked at the given epoch.
+	 * 
+	 * @param epoch The epoch read before the versions have been checked.
+	 */
+	void check(long epoch) {
+		this.epoch = epoch;
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(" ");
+		for (String label : getLabels())
+			joiner.add(label);
+		return joiner.toString();
+	}
+}
@@ -0,0 +1,139 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import fr.pederobien.commandtree.interfaces.INode;
+
+public class NodeSpliterator<T> implements Spliterator<INode<T>> {
+	/**
+	 * The maximum number of nodes visited in advance by {@link #trySplit()} while the remaining nodes do not form several subtrees.
+	 */
+	private static final int MAX_SPLIT_EXPANSION = 64;
+
+	private boolean depthFirst;
+	private Predicate<? super INode<T>> filter;
+	private Deque<INode<T>> visited;
+	private Deque<INode<T>> pending;
+
+	private NodeSpliterator(boolean depthFirst, Predicate<? super INode<T>> filter, Deque<INode<T>> visited, Deque<INode<T>> pending) {
+		this.depthFirst = depthFirst;
+		this.filter = filter;
+		this.visited = visited;
+		this.pending = pending;
+	}
+
+	/**
+	 * Creates a spliterator that lazily traverses the given node and its descendants in depth-first pre-order. Only the children of
+	 * the nodes on the current path are held in memory and the traversal does not use recursion.
+	 * 
+	 * @param node   The node to traverse.
+	 * @param filter The condition a node should satisfy to be traversed. A node that does not satisfy it is skipped with its whole
+	 *                   subtree.
+	 * 
+	 * @return A new ordered spliterator.
+	 */
+	public static <T> Spliterator<INode<T>> depthFirst(INode<T> node, Predicate<? super INode<T>> filter) {
+		return new NodeSpliterator<T>(true, filter, new ArrayDeque<INode<T>>(), initial(node, filter));
+	}
+
+	/**
+	 * Creates a spliterator that lazily traverses the given node and its descendants level by level. Only the frontier of the
+	 * traversal is held in memory. The level order is kept by a sequential traversal but not across the parts of a split.
+	 * 
+	 * @param node   The node to traverse.
+	 * @param filter The condition a node should satisfy to be traversed. A node that does not satisfy it is skipped with its whole
+	 *                   subtree.
+	 * 
+	 * @return A new spliterator.
+	 */
+	public static <T> Spliterator<INode<T>> breadthFirst(INode<T> node, Predicate<? super INode<T>> filter) {
+		return new NodeSpliterator<T>(false, filter, new ArrayDeque<INode<T>>(), initial(node, filter));
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super INode<T>> action) {
+		if (!visited.isEmpty()) {
+			action.accept(visited.poll());
+			return true;
+		}
+
+		if (pending.isEmpty())
+			return false;
+
+		INode<T> node = pending.poll();
+		expand(node);
+		action.accept(node);
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super INode<T>> action) {
+		while (tryAdvance(action))
+			;
+	}
+
+	@Override
+	public Spliterator<INode<T>> trySplit() {
+		// The subtrees are only split between spliterators, a single remaining subtree is visited until it has several children.
+		while (pending.size() == 1 && visited.size() < MAX_SPLIT_EXPANSION) {
+			INode<T> node = pending.poll();
+			expand(node);
+			visited.add(node);
+		}
+
+		if (pending.size() < 2)
+			return null;
+
+		// The first half of the pending subtrees is traversed before the second half.
+		Deque<INode<T>> prefix = new ArrayDeque<INode<T>>();
+		for (int i = pending.size() / 2; i > 0; i--)
+			prefix.add(pending.poll());
+
+		Spliterator<INode<T>> split = new NodeSpliterator<T>(depthFirst, filter, visited, prefix);
+		visited = new ArrayDeque<INode<T>>();
+		return split;
+	}
+
+	@Override
+	public long estimateSize() {
+		return pending.isEmpty() ? visited.size() : Long.MAX_VALUE;
+	}
+
+	@Override
+	public int characteristics() {
+		return NONNULL | (depthFirst ? ORDERED : 0);
+	}
+
+	/**
+	 * Appends the children of the given node that satisfy the filter to the pending nodes. In depth-first order, the children are
+	 * traversed before the other pending nodes.
+	 * 
+	 * @param node The node whose children should be traversed.
+	 */
+	private void expand(INode<T> node) {
+		if (!depthFirst) {
+			for (INode<T> child : node.getChildren().values())
+				if (filter.test(child))
+					pending.add(child);
+			return;
+		}
+
+		List<INode<T>> children = new ArrayList<INode<T>>(node.getChildren().values());
+		for (int i = children.size() - 1; i >= 0; i--)
+			if (filter.test(children.get(i)))
+				pending.push(children.get(i));
+	}
+
+	private static <T> Deque<INode<T>> initial(INode<T> node, Predicate<? super INode<T>> filter) {
+		Deque<INode<T>> pending = new ArrayDeque<INode<T>>();
+		if (filter.test(node))
+			pending.add(node);
+		return pending;
+	}
+}
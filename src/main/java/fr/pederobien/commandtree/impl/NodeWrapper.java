@@ -7,6 +7,7 @@ import java.util.Map.Entry;
 import java.util.function.Supplier;
 
 import fr.pederobien.commandtree.interfaces.INode;
+import fr.pederobien.commandtree.interfaces.INodePath;
 
 public class NodeWrapper<T> implements INode<T> {
 	private INode<T> source;
@@ -50,6 +51,11 @@ public class NodeWrapper<T> implements INode<T> {
 		return source.getRoot();
 	}
 
+	@Override
+	public INodePath<T> getPath() {
+		return source.getPath();
+	}
+
 	@Override
 	public void add(INode<T> node) {
 		source.add(node);
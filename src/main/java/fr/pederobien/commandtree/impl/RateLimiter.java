@@ -0,0 +1,57 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RateLimiter {
+	private long interval, capacity;
+	private AtomicLong theoreticalArrival;
+	private LongAdder rejected;
+
+	/**
+	 * Creates a token bucket that is refilled at the given rate and holds at most the given number of tokens. The bucket is
+	 * represented by the time at which it will be full again, so that taking a token costs one compare-and-set without lock. A rate
+	 * limiter can be shared by several nodes.
+	 * 
+	 * @param permitsPerSecond The number of tokens added to the bucket per second.
+	 * @param burst            The capacity of the bucket, that is the number of commands accepted at once after a period of inactivity.
+	 */
+	public RateLimiter(double permitsPerSecond, int burst) {
+		if (permitsPerSecond <= 0 || burst < 1)
+			throw new IllegalArgumentException("The rate and the burst must be strictly positive");
+
+		interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		capacity = interval * burst;
+		// The bucket is full at creation.
+		theoreticalArrival = new AtomicLong(System.nanoTime() - capacity);
+		rejected = new LongAdder();
+	}
+
+	/**
+	 * Try to take a token from the bucket without waiting.
+	 * 
+	 * @return True if a token has been taken, false if the bucket is empty.
+	 */
+	public boolean tryAcquire() {
+		long now = System.nanoTime();
+		while (true) {
+			long current = theoreticalArrival.get();
+			long next = Math.max(current, now - capacity) + interval;
+			if (next - now > 0) {
+				rejected.increment();
+				return false;
+			}
+
+			if (theoreticalArrival.compareAndSet(current, next))
+				return true;
+		}
+	}
+
+	/**
+	 * @return The number of commands rejected by this rate limiter.
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+}
@@ -42,7 +42,7 @@ public abstract class RootNode<T> extends Node<T> implements IRootNode<T> {
 	 * @param isAvailable True if this node is available, false otherwise.
 	 */
 	protected RootNode(String label, T explanation) {
-		this(label, explanation, () -> false);
+		this(label, explanation, NEVER_AVAILABLE);
 	}
 
 	@Override
@@ -0,0 +1,90 @@
+package fr.pederobien.commandtree.impl;
+
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.ICommandNode;
+
+final class Routes {
+	private static final String COMMAND = "onCommand";
+	private static final String COMPLETION = "onTabComplete";
+	private static final int CUSTOM = 0, ROUTE = 1, WRAPPER = 2;
+	private static final ClassValue<Integer> COMMAND_KINDS = new Kinds(COMMAND);
+	private static final ClassValue<Integer> COMPLETION_KINDS = new Kinds(COMPLETION);
+
+	private Routes() {
+	}
+
+	/**
+	 * A node is a command route when it does not override the default dispatch behavior of {@link CommandNode#onCommand(String[])}.
+	 * For such a node, the dispatch can continue directly with its children.
+	 * 
+	 * @param node The node to check.
+	 * 
+	 * @return True if the node only forwards the command to its children, false otherwise.
+	 */
+	static boolean isCommandRoute(ICommandNode<?> node) {
+		return isRoute(node, true);
+	}
+
+	/**
+	 * A node is a completion route when it does not override the default completion behavior of
+	 * {@link CommandNode#onTabComplete(String[])}. For such a node, the completion can continue directly with its children.
+	 * 
+	 * @param node The node to check.
+	 * 
+	 * @return True if the node only forwards the completion to its children, false otherwise.
+	 */
+	static boolean isCompletionRoute(ICommandNode<?> node) {
+		return isRoute(node, false);
+	}
+
+	private static boolean isRoute(ICommandNode<?> node, boolean command) {
+		while (true) {
+			if (node instanceof Tree.SetupNode<?>) {
+				Tree.SetupNode<?> setup = (Tree.SetupNode<?>) node;
+				if (command ? setup.hasExecutor() : setup.hasCompletor())
+					return false;
+				node = setup.getSource();
+				continue;
+			}
+
+			// The declaring classes of the methods only depend on the class of the node, they are looked up once per class.
+			int kind = (command ? COMMAND_KINDS : COMPLETION_KINDS).get(node.getClass());
+			if (kind != WRAPPER)
+				return kind == ROUTE;
+			node = ((CommandNodeWrapper<?>) node).getSource();
+		}
+	}
+
+	private static class Kinds extends ClassValue<Integer> {
+		private String method;
+
+		/**
+		 * Creates a cache that indicates for each class of node if the given method is the default one, is overridden or only
+		 * delegates to the wrapped node.
+		 * 
+		 * @param method The name of the method.
+		 */
+		private Kinds(String method) {
+			this.method = method;
+		}
+
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			Class<?> array, cursor;
+			try {
+				array = type.getMethod(method, String[].class).getDeclaringClass();
+				cursor = type.getMethod(method, IArgumentCursor.class).getDeclaringClass();
+			} catch (NoSuchMethodException e) {
+				return CUSTOM;
+			}
+
+			if (array == CommandNodeWrapper.class && cursor == CommandNodeWrapper.class)
+				return WRAPPER;
+			return isDefault(array) && isDefault(cursor) ? ROUTE : CUSTOM;
+		}
+
+		private static boolean isDefault(Class<?> declaring) {
+			return declaring == CommandNode.class || declaring == CommandRootNode.class;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package fr.pederobien.commandtree.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Predicate;
+
+import fr.pederobien.commandtree.interfaces.INode;
+
+public class SuggestionIndex<T> {
+	private static final Entry<?>[] NO_CHILDREN = new Entry<?>[0];
+
+	private Entry<T> root;
+	private int entries, empty;
+
+	/**
+	 * Creates a BK-tree that indexes the children of a node by the edit distance between their case-folded labels. Near-miss labels
+	 * are found without computing the distance to each child.
+	 * 
+	 * @param children The children to register.
+	 */
+	public SuggestionIndex(Iterable<? extends INode<T>> children) {
+		for (INode<T> child : children)
+			add(child);
+	}
+
+	/**
+	 * Creates a copy of the given index. The labels are not compared again, the entries of the index are copied.
+	 * 
+	 * @param index The index to copy.
+	 */
+	public SuggestionIndex(SuggestionIndex<T> index) {
+		entries = index.entries;
+		empty = index.empty;
+		if (index.root == null)
+			return;
+
+		root = new Entry<T>(index.root);
+		Deque<Entry<T>> pending = new ArrayDeque<Entry<T>>();
+		pending.push(root);
+		while (!pending.isEmpty()) {
+			Entry<T> entry = pending.pop();
+			for (int i = 0; i < entry.children.length; i++) {
+				if (entry.children[i] != null) {
+					entry.children[i] = new Entry<T>(entry.children[i]);
+					pending.push(entry.children[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Register the given node in this index.
+	 * 
+	 * @param node The node to register.
+	 */
+	public void add(INode<T> node) {
+		String key = CompletionIndex.fold(node.getLabel());
+		if (root == null) {
+			root = new Entry<T>(key, node);
+			entries++;
+			return;
+		}
+
+		Entry<T> current = root;
+		while (true) {
+			int distance = distance(current.key, key);
+			if (distance == 0) {
+				if (current.nodes.isEmpty())
+					empty--;
+				current.nodes.add(node);
+				return;
+			}
+
+			Entry<T> child = current.getChild(distance);
+			if (child == null) {
+				current.setChild(distance, new Entry<T>(key, node));
+				entries++;
+				return;
+			}
+			current = child;
+		}
+	}
+
+	/**
+	 * Unregister the given node from this index. A BK-tree does not support the removal of an entry: the entry of the label is kept
+	 * without node so that the search still goes through it.
+	 * 
+	 * @param node The node to unregister.
+	 * 
+	 * @return True if the node was registered in this index, false otherwise.
+	 */
+	public boolean remove(INode<T> node) {
+		String key = CompletionIndex.fold(node.getLabel());
+		Entry<T> current = root;
+		while (current != null) {
+			int distance = distance(current.key, key);
+			if (distance == 0) {
+				if (!current.nodes.remove(node))
+					return false;
+				if (current.nodes.isEmpty())
+					empty++;
+				return true;
+			}
+			current = current.getChild(distance);
+		}
+		return false;
+	}
+
+	/**
+	 * @return True if more than half of the entries of this index no longer have any node, the index should then be rebuilt so that a
+	 *         search does not compute the distance to the removed labels.
+	 */
+	public boolean needsRebuild() {
+		return empty > entries / 2;
+	}
+
+	/**
+	 * Get the label of each registered node whose the case-folded label is at most at the given edit distance of the argument. The
+	 * labels are sorted by distance.
+	 * 
+	 * @param argument    The argument that has not been found.
+	 * @param maxDistance The maximum number of insertions, deletions or substitutions.
+	 * @param filter      A filter applied only on the nodes close to the argument.
+	 * 
+	 * @return A list of labels sorted by distance and then by label.
+	 */
+	public List<String> suggest(String argument, int maxDistance, Predicate<INode<T>> filter) {
+		List<Suggestion> suggestions = new ArrayList<Suggestion>();
+		if (root == null)
+			return new ArrayList<String>();
+
+		String key = CompletionIndex.fold(argument);
+		Deque<Entry<T>> entries = new ArrayDeque<Entry<T>>();
+		entries.push(root);
+		while (!entries.isEmpty()) {
+			Entry<T> entry = entries.pop();
+			int distance = distance(entry.key, key);
+			if (distance <= maxDistance)
+				for (INode<T> node : entry.nodes)
+					if (filter.test(node))
+						suggestions.add(new Suggestion(node.getLabel(), distance));
+
+			// Triangle inequality: only the children at distance [d - max, d + max] can contain close labels.
+			int from = Math.max(1, distance - maxDistance);
+			int to = Math.min(entry.children.length - 1, distance + maxDistance);
+			for (int i = from; i <= to; i++)
+				if (entry.children[i] != null)
+					entries.push(entry.children[i]);
+		}
+
+		suggestions.sort(Comparator.comparingInt((Suggestion suggestion) -> suggestion.distance).thenComparing(suggestion -> suggestion.label));
+		List<String> labels = new ArrayList<String>(suggestions.size());
+		for (Suggestion suggestion : suggestions)
+			labels.add(suggestion.label);
+		return labels;
+	}
+
+	/**
+	 * Computes the Levenshtein distance between the two given strings.
+	 * 
+	 * @param first  The first string.
+	 * @param second The second string.
+	 * 
+	 * @return The minimum number of insertions, deletions or substitutions to transform the first string into the second.
+	 */
+	public static int distance(String first, String second) {
+		int[] previous = new int[second.length() + 1];
+		int[] current = new int[second.length() + 1];
+		for (int j = 0; j <= second.length(); j++)
+			previous[j] = j;
+
+		for (int i = 1; i <= first.length(); i++) {
+			current[0] = i;
+			for (int j = 1; j <= second.length(); j++) {
+				int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+			}
+
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[second.length()];
+	}
+
+	private static class Entry<T> {
+		private String key;
+		private List<INode<T>> nodes;
+		private Entry<T>[] children;
+
+		@SuppressWarnings("unchecked")
+		private Entry(String key, INode<T> node) {
+			this.key = key;
+			nodes = new ArrayList<INode<T>>(1);
+			nodes.add(node);
+			children = (Entry<T>[]) NO_CHILDREN;
+		}
+
+		private Entry(Entry<T> entry) {
+			key = entry.key;
+			nodes = new ArrayList<INode<T>>(entry.nodes);
+			children = entry.children.clone();
+		}
+
+		private Entry<T> getChild(int distance) {
+			return distance < children.length ? children[distance] : null;
+		}
+
+		private void setChild(int distance, Entry<T> child) {
+			if (distance >= children.length)
+				children = Arrays.copyOf(children, distance + 1);
+			children[distance] = child;
+		}
+	}
+
+	private static class Suggestion {
+		private String label;
+		private int distance;
+
+		private Suggestion(String label, int distance) {
+			this.label = label;
+			this.distance = distance;
+		}
+	}
+}
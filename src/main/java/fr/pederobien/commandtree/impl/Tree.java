@@ -1,12 +1,36 @@
 package fr.pederobien.commandtree.impl;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+import fr.pederobien.commandtree.exceptions.BindingNotFoundException;
+import fr.pederobien.commandtree.exceptions.CommandRejectedException;
+import fr.pederobien.commandtree.exceptions.CommandRejectedException.Reason;
+import fr.pederobien.commandtree.interfaces.IArgumentCursor;
+import fr.pederobien.commandtree.interfaces.IArgumentType;
+import fr.pederobien.commandtree.interfaces.IAsyncDispatcher;
+import fr.pederobien.commandtree.interfaces.IAsyncExecutor;
 import fr.pederobien.commandtree.interfaces.ICommandHelperNode;
 import fr.pederobien.commandtree.interfaces.ICommandNode;
+import fr.pederobien.commandtree.interfaces.ICommandRootNode;
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
 import fr.pederobien.commandtree.interfaces.ICompletor;
+import fr.pederobien.commandtree.interfaces.IDispatchListener;
+import fr.pederobien.commandtree.interfaces.IDispatchListener.Phase;
+import fr.pederobien.commandtree.interfaces.IDispatchResult.Status;
+import fr.pederobien.commandtree.interfaces.IDispatchTable;
 import fr.pederobien.commandtree.interfaces.IExecutor;
+import fr.pederobien.commandtree.interfaces.IExplanationCodec;
+import fr.pederobien.commandtree.interfaces.INodeEventDispatcher;
+import fr.pederobien.commandtree.interfaces.ITypedExecutor;
 
 public class Tree {
 
@@ -49,8 +73,42 @@ public class Tree {
 		return new TreeBuilder<T>(label, explanation);
 	}
 
+	/**
+	 * Loads the tree whose snapshot, written by {@link TreeSnapshot}, is stored in the file at the given path.
+	 * 
+	 * @param path     The path of the snapshot.
+	 * @param codec    The codec used to decode the explanation of each node.
+	 * @param registry The registry of the availabilities, executors and completors of the nodes.
+	 * 
+	 * @return A tree builder whose root is the loaded tree.
+	 * 
+	 * @throws IOException              If an I/O error occurs or if the file is not a valid snapshot.
+	 * @throws BindingNotFoundException If a binding identifier of the snapshot is not registered.
+	 */
+	public static <T> TreeBuilder<T> load(Path path, IExplanationCodec<T> codec, BindingRegistry registry) throws IOException {
+		return new TreeBuilder<T>(TreeSnapshot.read(path, codec, registry));
+	}
+
+	/**
+	 * Loads the tree whose snapshot, written by {@link TreeSnapshot}, is stored in the file at the given path. The snapshot does not
+	 * contain the helper of the root, the source of the given helper is set to the loaded root.
+	 * 
+	 * @param path       The path of the snapshot.
+	 * @param codec      The codec used to decode the explanation of each node.
+	 * @param registry   The registry of the availabilities, executors and completors of the nodes.
+	 * @param helperNode The helper associated to the root.
+	 * 
+	 * @return A tree builder whose root is the loaded tree.
+	 * 
+	 * @throws IOException              If an I/O error occurs or if the file is not a valid snapshot.
+	 * @throws BindingNotFoundException If a binding identifier of the snapshot is not registered.
+	 */
+	public static <T> TreeBuilder<T> load(Path path, IExplanationCodec<T> codec, BindingRegistry registry, ICommandHelperNode<T> helperNode) throws IOException {
+		return new TreeBuilder<T>(TreeSnapshot.read(path, codec, registry, helperNode));
+	}
+
 	public static class TreeBuilder<T> {
-		private ICommandNode<T> root;
+		private ICommandRootNode<T> root;
 
 		/**
 		 * Creates a root node based on the given parameters with an empty list of aliases.
@@ -85,6 +143,15 @@ public class Tree {
 			root = new CommandRootNode<T>(label, explanation);
 		}
 
+		/**
+		 * Creates a tree builder whose root is the given node.
+		 * 
+		 * @param root The root of the tree.
+		 */
+		private TreeBuilder(ICommandRootNode<T> root) {
+			this.root = root;
+		}
+
 		/**
 		 * Creates a node specified by the given parameters.
 		 * 
@@ -110,12 +177,141 @@ public class Tree {
 			return new NodeBuilder<T>(root, label, explanation);
 		}
 
+		/**
+		 * Set the matcher used to filter the children of each node of this tree during a completion. By default, the children whose
+		 * label contains the partial argument, ignoring case, are proposed. {@link CompletionMatcher#PREFIX} answers faster on nodes
+		 * that have many children.
+		 * 
+		 * @param matcher The matcher, see {@link CompletionMatcher} for the available implementations.
+		 * 
+		 * @return This tree builder.
+		 */
+		public TreeBuilder<T> withCompletionMatcher(ICompletionMatcher matcher) {
+			root.setCompletionMatcher(matcher);
+			return this;
+		}
+
+		/**
+		 * Enables a bounded cache of the children proposed by the nodes of this tree during a completion.
+		 * 
+		 * @param maximumSize The maximum number of entries of each node.
+		 * 
+		 * @return This tree builder.
+		 * 
+		 * @see ICommandRootNode#setCompletionCacheSize(int)
+		 */
+		public TreeBuilder<T> withCompletionCache(int maximumSize) {
+			root.setCompletionCacheSize(maximumSize);
+			return this;
+		}
+
+		/**
+		 * Enables the cache of the availability of the nodes of this tree.
+		 * 
+		 * @param timeToLive The duration during which an availability is kept, or null to keep it until the cache is invalidated.
+		 * 
+		 * @return This tree builder.
+		 * 
+		 * @see ICommandRootNode#setAvailabilityCache(Duration)
+		 */
+		public TreeBuilder<T> withAvailabilityCache(Duration timeToLive) {
+			root.setAvailabilityCache(timeToLive);
+			return this;
+		}
+
+		/**
+		 * Set the dispatcher used to notify the events thrown by the nodes of this tree.
+		 * 
+		 * @param dispatcher The dispatcher, for example an {@link AsyncNodeEventDispatcher}.
+		 * 
+		 * @return This tree builder.
+		 */
+		public TreeBuilder<T> withEventDispatcher(INodeEventDispatcher dispatcher) {
+			root.setEventDispatcher(dispatcher);
+			return this;
+		}
+
+		/**
+		 * Set the dispatcher used to run the asynchronous executors of the nodes of this tree.
+		 * 
+		 * @param dispatcher The dispatcher, for example an {@link AsyncDispatcher}.
+		 * 
+		 * @return This tree builder.
+		 */
+		public TreeBuilder<T> withAsyncDispatcher(IAsyncDispatcher dispatcher) {
+			root.setAsyncDispatcher(dispatcher);
+			return this;
+		}
+
+		/**
+		 * Enables the metrics of this tree.
+		 * 
+		 * @param enabled True to count the commands and record the latency of the commands and completions of each node.
+		 * 
+		 * @return This tree builder.
+		 * 
+		 * @see ICommandRootNode#setMetricsEnabled(boolean)
+		 */
+		public TreeBuilder<T> withMetrics(boolean enabled) {
+			root.setMetricsEnabled(enabled);
+			return this;
+		}
+
+		/**
+		 * Set the listener notified while this tree is walked.
+		 * 
+		 * @param listener The listener that traces the commands and completions.
+		 * 
+		 * @return This tree builder.
+		 * 
+		 * @see ICommandRootNode#setDispatchListener(IDispatchListener)
+		 */
+		public TreeBuilder<T> withDispatchListener(IDispatchListener listener) {
+			root.setDispatchListener(listener);
+			return this;
+		}
+
+		/**
+		 * Set the way the children of the nodes of this tree are stored.
+		 * 
+		 * @param concurrent True to store the children in copy-on-write maps.
+		 * 
+		 * @return This tree builder.
+		 * 
+		 * @see ICommandRootNode#setConcurrent(boolean)
+		 */
+		public TreeBuilder<T> withConcurrent(boolean concurrent) {
+			root.setConcurrent(concurrent);
+			return this;
+		}
+
 		/**
 		 * @return The root of this tree.
 		 */
 		public ICommandNode<T> build() {
 			return root;
 		}
+
+		/**
+		 * Creates an immutable, read-optimized snapshot of the tree. This method should be called once all nodes have been appended.
+		 * 
+		 * @return The snapshot of the root of this tree.
+		 * 
+		 * @see ICommandRootNode#freeze()
+		 */
+		public ICommandNode<T> freeze() {
+			return root.freeze();
+		}
+
+		/**
+		 * Flattens the current structure of the tree into an immutable dispatch table. This method should be called once all nodes have
+		 * been appended.
+		 * 
+		 * @return A dispatch table compiled from the root of this tree.
+		 */
+		public IDispatchTable<T> compile() {
+			return root.compile();
+		}
 	}
 
 	public static class NodeBuilder<T> {
@@ -169,6 +365,99 @@ public class Tree {
 			return this;
 		}
 
+		/**
+		 * Set the action to perform when method onCommand is called, with the arguments parsed according to the types given to
+		 * {@link #withArguments(IArgumentType...)}. Each argument is parsed once, the action is not called if an argument is not a value
+		 * of its type.
+		 * 
+		 * @param executor The action to perform.
+		 * 
+		 * @return this node builder.
+		 */
+		public NodeBuilder<T> withTypedExecutor(ITypedExecutor executor) {
+			node.setTypedExecutor(executor);
+			return this;
+		}
+
+		/**
+		 * Set the action to perform asynchronously when a command is executed. The action is run by the dispatcher of the tree, the
+		 * calling thread is only blocked when the command is executed through a synchronous method such as onCommand. A synchronous
+		 * method called from the action itself runs the nested action on the same thread.
+		 * 
+		 * @param executor The action to perform.
+		 * 
+		 * @return this node builder.
+		 */
+		public NodeBuilder<T> withAsyncExecutor(IAsyncExecutor executor) {
+			return withAsyncExecutor(executor, null);
+		}
+
+		/**
+		 * Set the action to perform asynchronously when a command is executed, with its own timeout.
+		 * 
+		 * @param executor The action to perform.
+		 * @param timeout  The maximum duration of the action, or null to use the default timeout of the dispatcher.
+		 * 
+		 * @return this node builder.
+		 */
+		public NodeBuilder<T> withAsyncExecutor(IAsyncExecutor executor, Duration timeout) {
+			node.setAsyncExecutor(executor, timeout);
+			return this;
+		}
+
+		/**
+		 * Limit the number of concurrent executions of the executor of the node. When the bulkhead is full, the command fails with a
+		 * {@link CommandRejectedException}. A bulkhead shared by several nodes limits their executions as a whole.
+		 * 
+		 * @param bulkhead The bulkhead that protects the executor.
+		 * 
+		 * @return this node builder.
+		 */
+		public NodeBuilder<T> withBulkhead(Bulkhead bulkhead) {
+			node.setBulkhead(bulkhead);
+			return this;
+		}
+
+		/**
+		 * Limit the rate at which the executor of the node is invoked. When the rate is exceeded, the command fails with a
+		 * {@link CommandRejectedException}.
+		 * 
+		 * @param rateLimiter The token bucket that protects the executor.
+		 * 
+		 * @return this node builder.
+		 */
+		public NodeBuilder<T> withRateLimit(RateLimiter rateLimiter) {
+			node.setRateLimiter(rateLimiter);
+			return this;
+		}
+
+		/**
+		 * Mark the command of the node as independent. In a batch executed in parallel, independent commands may run concurrently with
+		 * each other, the other commands are executed alone once the previous commands have completed.
+		 * 
+		 * @param independent True if the command does not depend on the commands executed before it.
+		 * 
+		 * @return this node builder.
+		 */
+		public NodeBuilder<T> withIndependent(boolean independent) {
+			node.setIndependent(independent);
+			return this;
+		}
+
+		/**
+		 * Set the types of the arguments of the node. When no completor is set, the last argument is completed by its type. When an
+		 * executor is set, it is only called if there is one argument per type and each argument is a value of its type, otherwise the
+		 * command fails. The parsed values are given to an executor set with {@link #withTypedExecutor(ITypedExecutor)}.
+		 * 
+		 * @param types The type of each argument, in order.
+		 * 
+		 * @return this node builder.
+		 */
+		public NodeBuilder<T> withArguments(IArgumentType<?>... types) {
+			node.setArguments(types);
+			return this;
+		}
+
 		/**
 		 * Creates a node specified by the given parameters.
 		 * 
@@ -211,22 +500,302 @@ public class Tree {
 		}
 	}
 
-	private static class SetupNode<T> extends CommandNodeWrapper<T> {
+	static class SetupNode<T> extends CommandNodeWrapper<T> {
+		// Set while an asynchronous executor runs, a synchronous command it executes is run by the same thread.
+		private static final ThreadLocal<Boolean> EXECUTING = new ThreadLocal<Boolean>();
+
 		private ICompletor completor;
 		private IExecutor executor;
+		private ITypedExecutor typedExecutor;
+		private IArgumentType<?>[] arguments;
+		private IAsyncExecutor asyncExecutor;
+		private Duration timeout;
+		private boolean independent;
+		private Bulkhead bulkhead;
+		private RateLimiter rateLimiter;
 
 		protected SetupNode(ICommandNode<T> source) {
 			super(source);
 		}
 
+		/**
+		 * @return True if the calling thread is running an asynchronous executor, a synchronous command it executes is then run by the
+		 *         same thread.
+		 */
+		static boolean isExecuting() {
+			return EXECUTING.get() != null;
+		}
+
+		/**
+		 * Runs the given action on the calling thread as an asynchronous executor is run: the synchronous commands and the batches it
+		 * executes do not wait for other threads of the dispatcher.
+		 * 
+		 * @param action The action to run, from a thread of the dispatcher.
+		 * 
+		 * @return The value returned by the action.
+		 */
+		static <R> R runExecuting(Supplier<R> action) {
+			boolean nested = EXECUTING.get() != null;
+			try {
+				EXECUTING.set(Boolean.TRUE);
+				return action.get();
+			} finally {
+				if (!nested)
+					EXECUTING.remove();
+			}
+		}
+
 		@Override
 		public List<String> onTabComplete(String[] args) {
-			return completor == null ? super.onTabComplete(args) : completor.onTabComplete(args);
+			if (completor == null && arguments == null)
+				return super.onTabComplete(args);
+
+			IDispatchListener listener = getDispatchListener();
+			if (listener == null)
+				return completor == null ? completeArguments(new ArgumentCursor(args)) : completor.onTabComplete(args);
+			return invoke(listener, Phase.COMPLETION, () -> completor == null ? completeArguments(new ArgumentCursor(args)) : completor.onTabComplete(args));
+		}
+
+		@Override
+		public List<String> onTabComplete(IArgumentCursor args) {
+			if (completor == null && arguments == null)
+				return super.onTabComplete(args);
+
+			IDispatchListener listener = getDispatchListener();
+			if (listener == null)
+				return completor == null ? completeArguments(args) : ArgumentCursor.complete(completor, args);
+			return invoke(listener, Phase.COMPLETION, () -> completor == null ? completeArguments(args) : ArgumentCursor.complete(completor, args));
 		}
 
 		@Override
 		public boolean onCommand(String[] args) {
-			return executor == null ? super.onCommand(args) : executor.onCommand(args);
+			if (asyncExecutor != null)
+				return await(new ArgumentCursor(args));
+			if (typedExecutor != null)
+				return execute(new ArgumentCursor(args));
+			if (executor == null)
+				return super.onCommand(args);
+			if (!isValid(new ArgumentCursor(args)))
+				return stop(Status.FAILED);
+
+			Bulkhead slot = acquireOrStop();
+			try {
+				IDispatchListener listener = getDispatchListener();
+				return listener == null ? executor.onCommand(args) : invoke(listener, Phase.COMMAND, () -> executor.onCommand(args));
+			} finally {
+				release(slot);
+			}
+		}
+
+		@Override
+		public boolean onCommand(IArgumentCursor args) {
+			if (asyncExecutor != null)
+				return await(args);
+			if (typedExecutor != null)
+				return execute(args);
+			if (executor == null)
+				return super.onCommand(args);
+			if (!isValid(args))
+				return stop(Status.FAILED);
+
+			Bulkhead slot = acquireOrStop();
+			try {
+				IDispatchListener listener = getDispatchListener();
+				if (listener == null)
+					return ArgumentCursor.execute(executor, args);
+				return invoke(listener, Phase.COMMAND, () -> ArgumentCursor.execute(executor, args));
+			} finally {
+				release(slot);
+			}
+		}
+
+		/**
+		 * Parses the arguments according to their type and gives the values to the typed executor of this node.
+		 * 
+		 * @param args A cursor on the arguments of this node.
+		 * 
+		 * @return The value returned by the typed executor, or false if an argument is not a value of its type.
+		 */
+		private boolean execute(IArgumentCursor args) {
+			Object[] values = parse(args);
+			if (values == null)
+				return stop(Status.FAILED);
+
+			Bulkhead slot = acquireOrStop();
+			try {
+				IDispatchListener listener = getDispatchListener();
+				return listener == null ? typedExecutor.onCommand(values) : invoke(listener, Phase.COMMAND, () -> typedExecutor.onCommand(values));
+			} finally {
+				release(slot);
+			}
+		}
+
+		/**
+		 * Runs the executor or the completor of this node and notifies the listener of its duration. The status of a command is notified
+		 * as well, since the dispatch stops on this node.
+		 * 
+		 * @param listener The listener of the tree.
+		 * @param phase    {@link Phase#COMMAND} for the executor, {@link Phase#COMPLETION} for the completor.
+		 * @param action   The call to the executor or to the completor.
+		 * 
+		 * @return The value returned by the executor or the completor.
+		 */
+		private <R> R invoke(IDispatchListener listener, Phase phase, Supplier<R> action) {
+			long start = System.nanoTime();
+			Throwable error = null;
+			R result = null;
+			try {
+				return result = action.get();
+			} catch (RuntimeException | Error e) {
+				error = e;
+				throw e;
+			} finally {
+				listener.onInvoke(this, phase, System.nanoTime() - start, error);
+				if (phase == Phase.COMMAND)
+					listener.onStop(this, null, error != null ? CommandMetrics.statusOf(error) : Boolean.TRUE.equals(result) ? Status.SUCCESS : Status.FAILED);
+			}
+		}
+
+		/**
+		 * Notifies the listener of the tree, if any, that the dispatch stopped on this node without running the executor.
+		 * 
+		 * @param status The status of the command.
+		 * 
+		 * @return True if the status is {@link Status#SUCCESS}, false otherwise.
+		 */
+		private boolean stop(Status status) {
+			IDispatchListener listener = getDispatchListener();
+			if (listener != null)
+				listener.onStop(this, null, status);
+			return status == Status.SUCCESS;
+		}
+
+		/**
+		 * @return The listener of the tree this node belongs to, or null.
+		 */
+		private IDispatchListener getDispatchListener() {
+			Node<T> source = Node.unwrap(getSource());
+			return source == null ? null : source.getDispatchListener();
+		}
+
+		/**
+		 * Submits the asynchronous executor of this node to the dispatcher of its tree. If this node has no asynchronous executor, the
+		 * command is executed by the calling thread. The bulkhead and the rate limiter of this node are checked by the thread of the
+		 * dispatcher, a command waiting for an execution slot does not block the calling thread.
+		 * 
+		 * @param args A cursor on the arguments of this node.
+		 * 
+		 * @return A future completed with the result of the command.
+		 */
+		CompletableFuture<Boolean> onCommandAsync(IArgumentCursor args) {
+			if (asyncExecutor == null)
+				return CompletableFuture.completedFuture(onCommand(args));
+			if (!isValid(args))
+				return CompletableFuture.completedFuture(stop(Status.FAILED));
+
+			// The cursor may be reused by the caller, the arguments are copied before leaving the calling thread.
+			return submit(args.toArray(), false);
+		}
+
+		/**
+		 * Executes the asynchronous executor of this node and waits for its result. The wait is bounded by the timeout of this node, or
+		 * by the default timeout of the dispatcher. If none has been set, the calling thread waits until the command completes.
+		 * 
+		 * @param args A cursor on the arguments of this node.
+		 * 
+		 * @return The result of the command.
+		 * 
+		 * @throws CompletionException If the command has expired.
+		 */
+		private boolean await(IArgumentCursor args) {
+			if (!isValid(args))
+				return stop(Status.FAILED);
+
+			try {
+				return submit(args.toArray(), true).join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				if (e.getCause() instanceof Error)
+					throw (Error) e.getCause();
+				throw e;
+			}
+		}
+
+		/**
+		 * Submits the asynchronous executor of this node to the dispatcher of its tree and notifies the listener of the tree when the
+		 * command completes.
+		 * 
+		 * @param args The arguments of this node.
+		 * @param wait True if the calling thread waits for the result of the command.
+		 * 
+		 * @return A future completed with the result of the command.
+		 */
+		private CompletableFuture<Boolean> submit(String[] args, boolean wait) {
+			Node<T> source = Node.unwrap(getSource());
+			IAsyncDispatcher dispatcher = source == null ? AsyncDispatcher.getDefault() : source.getAsyncDispatcher();
+
+			CompletableFuture<Boolean> future;
+			if (wait && EXECUTING.get() != null) {
+				// Waiting from a thread of the dispatcher for another of its threads may deadlock a saturated pool.
+				try {
+					future = execute(args);
+				} catch (RuntimeException | Error e) {
+					future = CompletableFuture.failedFuture(e);
+				}
+			} else
+				future = dispatcher.submit(this::execute, args, timeout);
+
+			if (wait) {
+				Duration limit = timeout;
+				if (limit == null && dispatcher instanceof AsyncDispatcher)
+					limit = ((AsyncDispatcher) dispatcher).getTimeout();
+				if (limit != null)
+					future.orTimeout(limit.toNanos(), TimeUnit.NANOSECONDS);
+			}
+
+			IDispatchListener listener = getDispatchListener();
+			if (listener != null) {
+				long start = System.nanoTime();
+				future.whenComplete((success, error) -> {
+					// A rejected command has not reached its executor.
+					if (!(error instanceof CommandRejectedException))
+						listener.onInvoke(this, Phase.COMMAND, System.nanoTime() - start, error);
+					listener.onStop(this, null, error != null ? CommandMetrics.statusOf(error) : success ? Status.SUCCESS : Status.FAILED);
+				});
+			}
+			return future;
+		}
+
+		/**
+		 * Runs the asynchronous executor of this node from a thread of the dispatcher, once an execution slot and a token have been
+		 * acquired. The slot is released when the future returned by the executor completes, not when the command is cancelled or
+		 * expires while the executor may still be running.
+		 * 
+		 * @param args The arguments of this node.
+		 * 
+		 * @return The future returned by the executor.
+		 * 
+		 * @throws CommandRejectedException If the rate limit is exceeded or if the bulkhead is full.
+		 */
+		private CompletableFuture<Boolean> execute(String[] args) {
+			Bulkhead slot = acquire();
+			boolean nested = EXECUTING.get() != null;
+			CompletableFuture<Boolean> future;
+			try {
+				EXECUTING.set(Boolean.TRUE);
+				future = asyncExecutor.onCommandAsync(args);
+			} catch (RuntimeException | Error e) {
+				release(slot);
+				throw e;
+			} finally {
+				if (!nested)
+					EXECUTING.remove();
+			}
+
+			if (slot != null)
+				future.whenComplete((success, error) -> slot.release());
+			return future;
 		}
 
 		/**
@@ -245,6 +814,221 @@ public class Tree {
 		 */
 		public void setExecutor(IExecutor executor) {
 			this.executor = executor;
+			typedExecutor = null;
+		}
+
+		/**
+		 * Set the action to perform, with the parsed arguments, when method onCommand is called.
+		 * 
+		 * @param typedExecutor The action to perform.
+		 */
+		public void setTypedExecutor(ITypedExecutor typedExecutor) {
+			this.typedExecutor = typedExecutor;
+			executor = null;
+		}
+
+		/**
+		 * Set the action to perform asynchronously when onCommand is called.
+		 * 
+		 * @param asyncExecutor The action to perform.
+		 * @param timeout       The maximum duration of the action, or null to use the default timeout of the dispatcher.
+		 */
+		public void setAsyncExecutor(IAsyncExecutor asyncExecutor, Duration timeout) {
+			this.asyncExecutor = asyncExecutor;
+			this.timeout = timeout;
+		}
+
+		/**
+		 * Set the bulkhead that limits the number of concurrent executions of the executor of this node.
+		 * 
+		 * @param bulkhead The bulkhead, or null to remove the limit.
+		 */
+		public void setBulkhead(Bulkhead bulkhead) {
+			this.bulkhead = bulkhead;
+		}
+
+		/**
+		 * Set the token bucket that limits the rate at which the executor of this node is invoked.
+		 * 
+		 * @param rateLimiter The token bucket, or null to remove the limit.
+		 */
+		public void setRateLimiter(RateLimiter rateLimiter) {
+			this.rateLimiter = rateLimiter;
+		}
+
+		/**
+		 * Set whether the command of this node can run concurrently with other independent commands of a batch.
+		 * 
+		 * @param independent True if the command does not depend on the commands executed before it.
+		 */
+		public void setIndependent(boolean independent) {
+			this.independent = independent;
+		}
+
+		/**
+		 * Set the types of the arguments of this node.
+		 * 
+		 * @param arguments The type of each argument, in order.
+		 */
+		public void setArguments(IArgumentType<?>... arguments) {
+			this.arguments = arguments.clone();
+		}
+
+		/**
+		 * @return True if an executor has been set for this node, false otherwise.
+		 */
+		boolean hasExecutor() {
+			return executor != null || typedExecutor != null || asyncExecutor != null;
+		}
+
+		/**
+		 * @return True if an asynchronous executor has been set for this node, false otherwise.
+		 */
+		boolean hasAsyncExecutor() {
+			return asyncExecutor != null;
+		}
+
+		/**
+		 * Take an execution slot from the bulkhead of this node, then a token from its rate limiter. The slot is given back if no token
+		 * is available, and no token is consumed by a command rejected by the bulkhead.
+		 * 
+		 * @return The bulkhead the slot has been taken from, to give to {@link #release(Bulkhead)}, or null if this node has no bulkhead.
+		 * 
+		 * @throws CommandRejectedException If the bulkhead is full or if the rate limit is exceeded.
+		 */
+		private Bulkhead acquire() {
+			// The limits may be changed concurrently, the slot is released to the bulkhead it has been taken from.
+			Bulkhead bulkhead = this.bulkhead;
+			RateLimiter rateLimiter = this.rateLimiter;
+
+			if (bulkhead != null && !bulkhead.tryAcquire())
+				throw new CommandRejectedException(getLabel(), Reason.BULKHEAD_FULL);
+
+			if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+				release(bulkhead);
+				throw new CommandRejectedException(getLabel(), Reason.RATE_LIMITED);
+			}
+			return bulkhead;
+		}
+
+		/**
+		 * Same as {@link #acquire()}, but notifies the listener of the tree when the command is rejected.
+		 * 
+		 * @return The bulkhead the slot has been taken from, or null if this node has no bulkhead.
+		 */
+		private Bulkhead acquireOrStop() {
+			try {
+				return acquire();
+			} catch (CommandRejectedException e) {
+				stop(Status.REJECTED);
+				throw e;
+			}
+		}
+
+		/**
+		 * Release the execution slot taken by {@link #acquire()}.
+		 * 
+		 * @param bulkhead The bulkhead returned by {@link #acquire()}, or null.
+		 */
+		private void release(Bulkhead bulkhead) {
+			if (bulkhead != null)
+				bulkhead.release();
+		}
+
+		/**
+		 * @return True if the command of this node can run concurrently with other independent commands of a batch.
+		 */
+		boolean isIndependent() {
+			return independent;
+		}
+
+		/**
+		 * @return The action to perform when method onTabComplete is called, or null.
+		 */
+		ICompletor getCompletor() {
+			return completor;
+		}
+
+		/**
+		 * @return The action to perform when method onCommand is called, or null.
+		 */
+		IExecutor getExecutor() {
+			return executor;
+		}
+
+		/**
+		 * @return True if a typed or an asynchronous executor, argument types, a bulkhead or a rate limiter have been set for this node.
+		 */
+		boolean hasRuntimeSettings() {
+			return typedExecutor != null || asyncExecutor != null || arguments != null || bulkhead != null || rateLimiter != null;
+		}
+
+		/**
+		 * @return True if a completor has been set for this node, false otherwise.
+		 */
+		boolean hasCompletor() {
+			return completor != null || arguments != null;
+		}
+
+		/**
+		 * Complete the last argument according to its type, if the previous arguments are values of their type.
+		 * 
+		 * @param args A cursor on the arguments of this node.
+		 * 
+		 * @return A list of possible completions for the last argument.
+		 */
+		private List<String> completeArguments(IArgumentCursor args) {
+			int last = args.length() - 1;
+			if (last < 0 || last >= arguments.length)
+				return new ArrayList<String>();
+
+			for (int i = 0; i < last; i++)
+				if (!arguments[i].isValid(args.get(i)))
+					return new ArrayList<String>();
+			return arguments[last].complete(args.get(last));
+		}
+
+		/**
+		 * @param args A cursor on the arguments of this node.
+		 * 
+		 * @return True if no type has been set or if there is one argument per type and each argument is a value of its type, false
+		 *         otherwise.
+		 */
+		private boolean isValid(IArgumentCursor args) {
+			if (arguments == null)
+				return true;
+
+			// The length of a cursor on a command line is not stored, it is computed once.
+			if (args.length() != arguments.length)
+				return false;
+
+			for (int i = 0; i < arguments.length; i++)
+				if (!arguments[i].isValid(args.get(i)))
+					return false;
+			return true;
+		}
+
+		/**
+		 * @param args A cursor on the arguments of this node.
+		 * 
+		 * @return The value of each argument if there is one argument per type and each argument is a value of its type, the arguments
+		 *         if no type has been set, null otherwise.
+		 */
+		private Object[] parse(IArgumentCursor args) {
+			if (arguments == null)
+				return args.toArray();
+
+			if (args.length() != arguments.length)
+				return null;
+
+			Object[] values = new Object[arguments.length];
+			for (int i = 0; i < arguments.length; i++) {
+				Optional<?> value = arguments[i].parse(args.get(i));
+				if (!value.isPresent())
+					return null;
+				values[i] = value.get();
+			}
+			return values;
 		}
 	}
 }
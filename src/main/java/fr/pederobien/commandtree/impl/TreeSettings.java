@@ -0,0 +1,152 @@
+package fr.pederobien.commandtree.impl;
+
+import fr.pederobien.commandtree.interfaces.IAsyncDispatcher;
+import fr.pederobien.commandtree.interfaces.ICompletionMatcher;
+import fr.pederobien.commandtree.interfaces.IDispatchListener;
+import fr.pederobien.commandtree.interfaces.INodeEventDispatcher;
+import fr.pederobien.utils.event.EventManager;
+
+final class TreeSettings {
+	private static final INodeEventDispatcher SYNCHRONOUS = EventManager::callEvent;
+
+	/**
+	 * The settings of the trees that have not been configured.
+	 */
+	static final TreeSettings DEFAULT = new TreeSettings();
+
+	private volatile AvailabilityCache availabilityCache;
+	private volatile INodeEventDispatcher eventDispatcher;
+	private volatile IDispatchListener dispatchListener;
+	private volatile IAsyncDispatcher asyncDispatcher;
+	private volatile ICompletionMatcher completionMatcher;
+	private volatile CompletionCache completionCache;
+	private volatile boolean concurrent;
+	private volatile LabelIndex<?> labelIndex;
+
+	/**
+	 * Creates the settings shared by the nodes of a tree. They are held by the top node of the tree, whose reference is cached with
+	 * the path of each node, so that a node resolves them once per call instead of asking each of its ancestors, and so that a node
+	 * does not store a reference for each of them.
+	 */
+	TreeSettings() {
+		eventDispatcher = SYNCHRONOUS;
+		completionMatcher = CompletionMatcher.SUBSTRING;
+	}
+
+	/**
+	 * @return The policy used to cache the availability of the nodes, or null if the supplier of a node is evaluated at each call.
+	 */
+	AvailabilityCache getAvailabilityCache() {
+		return availabilityCache;
+	}
+
+	/**
+	 * @param availabilityCache The policy used to cache the availability of the nodes, or null to disable the cache.
+	 */
+	void setAvailabilityCache(AvailabilityCache availabilityCache) {
+		this.availabilityCache = availabilityCache;
+	}
+
+	/**
+	 * @return The dispatcher used to notify the events thrown by the nodes, by default the events are given synchronously to the
+	 *         {@link EventManager}.
+	 */
+	INodeEventDispatcher getEventDispatcher() {
+		return eventDispatcher;
+	}
+
+	/**
+	 * @param eventDispatcher The dispatcher used to notify the events thrown by the nodes, or null to notify them synchronously.
+	 */
+	void setEventDispatcher(INodeEventDispatcher eventDispatcher) {
+		this.eventDispatcher = eventDispatcher == null ? SYNCHRONOUS : eventDispatcher;
+	}
+
+	/**
+	 * @return The listener notified while the tree is walked, or null.
+	 */
+	IDispatchListener getDispatchListener() {
+		return dispatchListener;
+	}
+
+	/**
+	 * @param dispatchListener The listener notified while the tree is walked, or null to remove it.
+	 */
+	void setDispatchListener(IDispatchListener dispatchListener) {
+		this.dispatchListener = dispatchListener;
+	}
+
+	/**
+	 * @return The dispatcher used to run the asynchronous executors of the nodes, by default {@link AsyncDispatcher#getDefault()}.
+	 */
+	IAsyncDispatcher getAsyncDispatcher() {
+		IAsyncDispatcher asyncDispatcher = this.asyncDispatcher;
+		return asyncDispatcher == null ? AsyncDispatcher.getDefault() : asyncDispatcher;
+	}
+
+	/**
+	 * @param asyncDispatcher The dispatcher used to run the asynchronous executors of the nodes, or null to use the default one.
+	 */
+	void setAsyncDispatcher(IAsyncDispatcher asyncDispatcher) {
+		this.asyncDispatcher = asyncDispatcher;
+	}
+
+	/**
+	 * @return The matcher used to filter the children of the nodes that have no matcher during a completion, by default
+	 *         {@link CompletionMatcher#SUBSTRING}.
+	 */
+	ICompletionMatcher getCompletionMatcher() {
+		return completionMatcher;
+	}
+
+	/**
+	 * @param completionMatcher The matcher used to filter the children of the nodes that have no matcher, or null to use the default
+	 *                              one.
+	 */
+	void setCompletionMatcher(ICompletionMatcher completionMatcher) {
+		this.completionMatcher = completionMatcher == null ? CompletionMatcher.SUBSTRING : completionMatcher;
+	}
+
+	/**
+	 * @return The policy of the cache of the completions of the nodes, or null if the completions are not cached.
+	 */
+	CompletionCache getCompletionCache() {
+		return completionCache;
+	}
+
+	/**
+	 * @param completionCache The policy of the cache of the completions of the nodes, or null to disable the cache.
+	 */
+	void setCompletionCache(CompletionCache completionCache) {
+		this.completionCache = completionCache;
+	}
+
+	/**
+	 * @return True if the children of the nodes are stored in copy-on-write maps.
+	 */
+	boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * @param concurrent True to store the children of the nodes in copy-on-write maps.
+	 */
+	void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * @return The index of the labels of the nodes, or null if it has not been built yet.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> LabelIndex<T> getLabelIndex() {
+		return (LabelIndex<T>) labelIndex;
+	}
+
+	/**
+	 * @param labelIndex The index of the labels of the nodes, or null to build it again on the next lookup.
+	 */
+	void setLabelIndex(LabelIndex<?> labelIndex) {
+		this.labelIndex = labelIndex;
+	}
+}
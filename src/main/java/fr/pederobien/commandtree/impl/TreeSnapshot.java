@@ -0,0 +1,451 @@
+package fr.pederobien.commandtree.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import fr.pederobien.commandtree.exceptions.BindingNotFoundException;
+import fr.pederobien.commandtree.interfaces.ICommandHelperNode;
+import fr.pederobien.commandtree.interfaces.ICommandRootNode;
+import fr.pederobien.commandtree.interfaces.IExplanationCodec;
+import fr.pederobien.commandtree.interfaces.INode;
+
+/**
+ * Binary snapshot of the structure of a tree. The snapshot starts with the magic number and the version of the format, followed by
+ * the table of the labels and of the binding identifiers, then by the nodes in depth-first order. Each node is written as the
+ * reference of its label, the references of its availability, executor and completor identifiers, its flags, its encoded
+ * explanation and its number of children. The integers, except the magic number, are written as unsigned variable-length
+ * integers.
+ */
+public class TreeSnapshot {
+	private static final int MAGIC = 0x43545245;
+	private static final int VERSION = 1;
+	// The reference of a binding that has not been set, the reference of a string is its index plus one.
+	private static final int NONE = 0;
+	private static final int INDEPENDENT = 1;
+
+	private TreeSnapshot() {
+	}
+
+	/**
+	 * Write the structure of the given tree in the file at the given path. The availability, the executor and the completor of each
+	 * node are written as the identifiers under which they are registered in the given registry. The helper of the root is not
+	 * written, a custom helper should be given again when the tree is loaded.
+	 * 
+	 * @param root     The root of the tree to write.
+	 * @param path     The path of the file to write.
+	 * @param codec    The codec used to encode the explanation of each node.
+	 * @param registry The registry of the bindings of the nodes.
+	 * 
+	 * @throws IOException              If an I/O error occurs.
+	 * @throws IllegalArgumentException If a node has not been created by a {@link Tree.TreeBuilder}, if a binding of a node is not
+	 *                                  registered, or if a node has an asynchronous executor, argument types, a bulkhead or a rate
+	 *                                  limiter.
+	 */
+	public static <T> void write(ICommandRootNode<T> root, Path path, IExplanationCodec<T> codec, BindingRegistry registry) throws IOException {
+		try (OutputStream output = Files.newOutputStream(path)) {
+			write(root, output, codec, registry);
+		}
+	}
+
+	/**
+	 * Write the structure of the given tree in the given stream. The stream is not closed.
+	 * 
+	 * @param root     The root of the tree to write.
+	 * @param output   The stream in which the snapshot is written.
+	 * @param codec    The codec used to encode the explanation of each node.
+	 * @param registry The registry of the bindings of the nodes.
+	 * 
+	 * @throws IOException              If an I/O error occurs.
+	 * @throws IllegalArgumentException If a node has not been created by a {@link Tree.TreeBuilder}, if a binding of a node is not
+	 *                                  registered, or if a node has an asynchronous executor, argument types, a bulkhead or a rate
+	 *                                  limiter.
+	 */
+	public static <T> void write(ICommandRootNode<T> root, OutputStream output, IExplanationCodec<T> codec, BindingRegistry registry) throws IOException {
+		if (!(root instanceof Node<?>))
+			throw new IllegalArgumentException("The root " + root.getLabel() + " has not been created by a tree builder");
+
+		// The strings are referenced by their index, the table is written before the nodes.
+		Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+		List<Record> records = new ArrayList<Record>();
+
+		Deque<INode<T>> stack = new ArrayDeque<INode<T>>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			INode<T> node = stack.pop();
+			records.add(record(node, strings, codec, registry));
+
+			List<INode<T>> children = new ArrayList<INode<T>>(node.getChildren().values());
+			for (int i = children.size() - 1; i >= 0; i--)
+				stack.push(children.get(i));
+		}
+
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+		data.writeInt(MAGIC);
+		writeVarint(data, VERSION);
+
+		writeVarint(data, strings.size());
+		for (String string : strings.keySet()) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarint(data, bytes.length);
+			data.write(bytes);
+		}
+
+		writeVarint(data, records.size());
+		for (Record record : records) {
+			writeVarint(data, record.label);
+			writeVarint(data, record.availability);
+			writeVarint(data, record.executor);
+			writeVarint(data, record.completor);
+			writeVarint(data, record.flags);
+			if (record.explanation == null)
+				writeVarint(data, NONE);
+			else {
+				writeVarint(data, record.explanation.length + 1);
+				data.write(record.explanation);
+			}
+			writeVarint(data, record.children);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Rebuild the tree whose snapshot is stored in the file at the given path. The file is mapped in memory and read in a single pass.
+	 * The children are attached to their parent without dispatching events, the tree is not visible until this method returns.
+	 * 
+	 * @param path     The path of the snapshot.
+	 * @param codec    The codec used to decode the explanation of each node.
+	 * @param registry The registry of the bindings of the nodes.
+	 * 
+	 * @return The root of the rebuilt tree.
+	 * 
+	 * @throws IOException              If an I/O error occurs or if the file is not a valid snapshot.
+	 * @throws BindingNotFoundException If a binding identifier is not registered.
+	 */
+	public static <T> CommandRootNode<T> read(Path path, IExplanationCodec<T> codec, BindingRegistry registry) throws IOException {
+		return read(path, codec, registry, null);
+	}
+
+	/**
+	 * Rebuild the tree whose snapshot is stored in the file at the given path, see {@link #read(Path, IExplanationCodec, BindingRegistry)}.
+	 * 
+	 * @param path       The path of the snapshot.
+	 * @param codec      The codec used to decode the explanation of each node.
+	 * @param registry   The registry of the bindings of the nodes.
+	 * @param helperNode The helper associated to the root, whose source is set to the rebuilt root, or null to use the default
+	 *                   helper.
+	 * 
+	 * @return The root of the rebuilt tree.
+	 * 
+	 * @throws IOException              If an I/O error occurs or if the file is not a valid snapshot.
+	 * @throws BindingNotFoundException If a binding identifier is not registered.
+	 */
+	public static <T> CommandRootNode<T> read(Path path, IExplanationCodec<T> codec, BindingRegistry registry, ICommandHelperNode<T> helperNode)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return read(channel.map(MapMode.READ_ONLY, 0, channel.size()), codec, registry, helperNode);
+		}
+	}
+
+	/**
+	 * Rebuild the tree whose snapshot is stored in the remaining bytes of the given buffer. The position of the buffer is not
+	 * modified.
+	 * 
+	 * @param buffer     The buffer that contains the snapshot.
+	 * @param codec      The codec used to decode the explanation of each node.
+	 * @param registry   The registry of the bindings of the nodes.
+	 * @param helperNode The helper associated to the root, whose source is set to the rebuilt root, or null to use the default
+	 *                   helper.
+	 * 
+	 * @return The root of the rebuilt tree.
+	 * 
+	 * @throws IOException              If the buffer does not contain a valid snapshot.
+	 * @throws BindingNotFoundException If a binding identifier is not registered.
+	 */
+	public static <T> CommandRootNode<T> read(ByteBuffer buffer, IExplanationCodec<T> codec, BindingRegistry registry, ICommandHelperNode<T> helperNode)
+			throws IOException {
+		ByteBuffer input = buffer.duplicate();
+		try {
+			if (input.getInt() != MAGIC)
+				throw new IOException("Not a snapshot of a command tree");
+
+			int version = readVarint(input);
+			if (version != VERSION)
+				throw new IOException("Unsupported snapshot version " + version);
+
+			// Each string takes at least one byte.
+			String[] strings = new String[readLength(input)];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[readLength(input)];
+				input.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			// Each node takes at least one byte.
+			int count = readLength(input);
+			if (count == 0)
+				throw new IOException("The snapshot does not contain a root");
+
+			String label = string(strings, readVarint(input));
+			Supplier<Boolean> availability = availability(strings, readVarint(input), registry);
+			// The root has neither executor, nor completor nor flags.
+			readVarint(input);
+			readVarint(input);
+			readVarint(input);
+
+			T explanation = explanation(input, codec);
+			CommandRootNode<T> root;
+			if (helperNode == null)
+				root = new CommandRootNode<T>(label, explanation, availability);
+			else {
+				root = new CommandRootNode<T>(label, explanation, availability, helperNode);
+				helperNode.setSource(root);
+			}
+
+			Deque<Frame<T>> parents = new ArrayDeque<Frame<T>>();
+			int children = readLength(input);
+			if (children > 0)
+				parents.push(new Frame<T>(root, children));
+
+			for (int i = 1; i < count; i++) {
+				Frame<T> parent = parents.peek();
+				if (parent == null)
+					throw new IOException("The snapshot contains more nodes than its tree");
+
+				label = string(strings, readVarint(input));
+				availability = availability(strings, readVarint(input), registry);
+				int executor = readVarint(input);
+				int completor = readVarint(input);
+				int flags = readVarint(input);
+
+				CommandNode<T> source = new CommandNode<T>(label, explanation(input, codec), availability);
+				Tree.SetupNode<T> node = new Tree.SetupNode<T>(source);
+				if (executor != NONE)
+					node.setExecutor(registry.getExecutor(string(strings, executor)));
+				if (completor != NONE)
+					node.setCompletor(registry.getCompletor(string(strings, completor)));
+				node.setIndependent((flags & INDEPENDENT) != 0);
+
+				parent.node.attach(node);
+				if (--parent.remaining == 0)
+					parents.pop();
+
+				children = readLength(input);
+				if (children > 0)
+					parents.push(new Frame<T>(source, children));
+			}
+
+			if (!parents.isEmpty())
+				throw new IOException("The snapshot contains less nodes than its tree");
+			return root;
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated snapshot", e);
+		}
+	}
+
+	/**
+	 * Get the record of the given node, registering its label and the identifiers of its bindings in the given table.
+	 * 
+	 * @param node     The node to write.
+	 * @param strings  The table of the strings already referenced by the snapshot.
+	 * @param codec    The codec used to encode the explanation of the node.
+	 * @param registry The registry of the bindings of the node.
+	 * 
+	 * @return The record of the node.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Record record(INode<T> node, Map<String, Integer> strings, IExplanationCodec<T> codec, BindingRegistry registry) {
+		Node<T> source;
+		Record record = new Record();
+		if (node instanceof Tree.SetupNode<?>) {
+			Tree.SetupNode<T> setup = (Tree.SetupNode<T>) node;
+			if (!(setup.getSource() instanceof Node<?>))
+				throw new IllegalArgumentException("The node " + node.getPath() + " has not been created by a tree builder");
+			if (setup.hasRuntimeSettings())
+				throw new IllegalArgumentException("The runtime settings of node " + node.getPath() + " cannot be written in a snapshot");
+
+			source = (Node<T>) setup.getSource();
+			if (setup.getExecutor() != null)
+				record.executor = reference(strings, id(node, "executor", registry.executorId(setup.getExecutor())));
+			if (setup.getCompletor() != null)
+				record.completor = reference(strings, id(node, "completor", registry.completorId(setup.getCompletor())));
+			if (setup.isIndependent())
+				record.flags |= INDEPENDENT;
+		} else if (node instanceof ICommandRootNode<?> && node instanceof Node<?>)
+			source = (Node<T>) node;
+		else
+			throw new IllegalArgumentException("The node " + node.getPath() + " has not been created by a tree builder");
+
+		record.label = reference(strings, node.getLabel());
+		if (source.getAvailability() != Node.NEVER_AVAILABLE)
+			record.availability = reference(strings, id(node, "availability", registry.availabilityId(source.getAvailability())));
+
+		T explanation = node.getExplanation();
+		record.explanation = explanation == null ? null : codec.encode(explanation);
+		record.children = node.getChildren().size();
+		return record;
+	}
+
+	/**
+	 * @param node The node whose binding is written.
+	 * @param kind The kind of the binding.
+	 * @param id   The identifier of the binding in the registry, or null.
+	 * 
+	 * @return The given identifier.
+	 * 
+	 * @throws IllegalArgumentException If the identifier is null.
+	 */
+	private static String id(INode<?> node, String kind, String id) {
+		if (id == null)
+			throw new IllegalArgumentException("The " + kind + " of node " + node.getPath() + " is not registered");
+		return id;
+	}
+
+	/**
+	 * @param strings The table of the strings already referenced by the snapshot.
+	 * @param string  The string to reference.
+	 * 
+	 * @return The reference of the given string, added to the table if needed.
+	 */
+	private static int reference(Map<String, Integer> strings, String string) {
+		Integer index = strings.get(string);
+		if (index == null) {
+			index = strings.size();
+			strings.put(string, index);
+		}
+		return index + 1;
+	}
+
+	/**
+	 * @param strings   The table of the strings of the snapshot.
+	 * @param reference The reference of a string.
+	 * 
+	 * @return The referenced string.
+	 * 
+	 * @throws IOException If the reference is out of the table.
+	 */
+	private static String string(String[] strings, int reference) throws IOException {
+		if (reference < 1 || reference > strings.length)
+			throw new IOException("Invalid string reference " + reference);
+		return strings[reference - 1];
+	}
+
+	/**
+	 * @param strings   The table of the strings of the snapshot.
+	 * @param reference The reference of the identifier of an availability.
+	 * @param registry  The registry of the bindings of the nodes.
+	 * 
+	 * @return The registered availability, or an availability that is always false if the reference is {@link #NONE}.
+	 * 
+	 * @throws IOException If the reference is out of the table.
+	 */
+	private static Supplier<Boolean> availability(String[] strings, int reference, BindingRegistry registry) throws IOException {
+		return reference == NONE ? Node.NEVER_AVAILABLE : registry.getAvailability(string(strings, reference));
+	}
+
+	/**
+	 * Read an explanation. The codec is given a view on the bytes of the explanation, that is not copied.
+	 * 
+	 * @param input The buffer positioned on the explanation.
+	 * @param codec The codec used to decode the explanation.
+	 * 
+	 * @return The decoded explanation, or null.
+	 * 
+	 * @throws IOException If the length of the explanation is malformed or exceeds the buffer.
+	 */
+	private static <T> T explanation(ByteBuffer input, IExplanationCodec<T> codec) throws IOException {
+		int length = readLength(input);
+		if (length == NONE)
+			return null;
+
+		ByteBuffer bytes = input.slice();
+		bytes.limit(length - 1);
+		input.position(input.position() + length - 1);
+		return codec.decode(bytes);
+	}
+
+	/**
+	 * Write the given positive integer using 7 bits per byte, the most significant bit of a byte is set when other bytes follow.
+	 * 
+	 * @param output The stream in which the integer is written.
+	 * @param value  The integer to write.
+	 * 
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private static void writeVarint(DataOutputStream output, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			output.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.writeByte(value);
+	}
+
+	/**
+	 * @param input The buffer positioned on an integer written by {@link #writeVarint(DataOutputStream, int)}.
+	 * 
+	 * @return The read integer.
+	 * 
+	 * @throws IOException If the integer is written on more than 5 bytes or if it is greater than {@link Integer#MAX_VALUE}.
+	 */
+	private static int readVarint(ByteBuffer input) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = input.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				if (value > Integer.MAX_VALUE)
+					break;
+				return (int) value;
+			}
+		}
+		throw new IOException("Malformed integer in snapshot");
+	}
+
+	/**
+	 * Read a number of elements that are each written on at least one byte, so that a corrupted snapshot does not allocate more
+	 * elements than the remaining bytes.
+	 * 
+	 * @param input The buffer positioned on the number of elements.
+	 * 
+	 * @return The read number of elements.
+	 * 
+	 * @throws IOException If the number is malformed or greater than the number of remaining bytes.
+	 */
+	private static int readLength(ByteBuffer input) throws IOException {
+		int length = readVarint(input);
+		if (length > input.remaining())
+			throw new IOException("Truncated snapshot");
+		return length;
+	}
+
+	private static class Record {
+		private int label, availability, executor, completor, flags, children;
+		private byte[] explanation;
+	}
+
+	private static class Frame<T> {
+		private Node<T> node;
+		private int remaining;
+
+		private Frame(Node<T> node, int remaining) {
+			this.node = node;
+			this.remaining = remaining;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package fr.pederobien.commandtree.interfaces;
+
+public interface IArgumentCursor {
+
+	/**
+	 * @return The number of remaining arguments, from the current position of this cursor to the end of the underlying arguments.
+	 */
+	int length();
+
+	/**
+	 * Check if there is no remaining argument. Contrary to {@link #length()}, implementations should answer without going through the
+	 * remaining arguments.
+	 * 
+	 * @return True if there is no remaining argument, false otherwise.
+	 */
+	default boolean isEmpty() {
+		return length() == 0;
+	}
+
+	/**
+	 * Check if the argument at the current position of this cursor is the last one. Contrary to {@link #length()}, implementations
+	 * should answer without going through all the remaining arguments.
+	 * 
+	 * @return True if there is exactly one remaining argument, false otherwise.
+	 */
+	default boolean isLast() {
+		return length() == 1;
+	}
+
+	/**
+	 * Get the remaining argument at the given index. The index 0 corresponds to the argument at the current position of this cursor.
+	 * 
+	 * @param index The index of the argument, relative to the current position of this cursor.
+	 * 
+	 * @return The argument at the given index.
+	 * 
+	 * @throws IndexOutOfBoundsException If the index is negative or greater than or equal to {@link #length()}.
+	 */
+	String get(int index);
+
+	/**
+	 * @return The last argument. In most case, it corresponds to the final partial argument to be completed.
+	 * 
+	 * @throws IndexOutOfBoundsException If there is no remaining argument.
+	 */
+	String last();
+
+	/**
+	 * Moves the current position of this cursor to the next argument. No array is created, the cursor is updated and returned.
+	 * 
+	 * @return This cursor.
+	 * 
+	 * @throws IndexOutOfBoundsException If there is no remaining argument.
+	 */
+	IArgumentCursor next();
+
+	/**
+	 * @return The current position of this cursor in the underlying arguments.
+	 */
+	int getOffset();
+
+	/**
+	 * @return A new cursor positioned on the same argument as this cursor. Moving one of them does not move the other.
+	 */
+	IArgumentCursor copy();
+
+	/**
+	 * Copy the remaining arguments into a new array. This method should only be called when an array is really needed.
+	 * 
+	 * @return A new array that contains the remaining arguments.
+	 */
+	String[] toArray();
+}
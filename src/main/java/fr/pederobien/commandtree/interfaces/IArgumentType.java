@@ -0,0 +1,49 @@
+package fr.pederobien.commandtree.interfaces;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface IArgumentType<V> {
+
+	/**
+	 * @return The name of this type, displayed between angle brackets when the possible values cannot be listed.
+	 */
+	String getName();
+
+	/**
+	 * Check if the given argument represents a value of this type. This method never throws an exception.
+	 * 
+	 * @param argument The argument to check.
+	 * 
+	 * @return True if the argument can be parsed, false otherwise.
+	 */
+	boolean isValid(String argument);
+
+	/**
+	 * Check if the given argument, that is being written, may become a value of this type when characters are appended to it. This
+	 * method never throws an exception.
+	 * 
+	 * @param argument The partial argument to check.
+	 * 
+	 * @return True if the argument is the beginning of a value of this type, false otherwise.
+	 */
+	boolean isPartial(String argument);
+
+	/**
+	 * Parses the given argument without throwing an exception.
+	 * 
+	 * @param argument The argument to parse.
+	 * 
+	 * @return An optional that contains the parsed value, or an empty optional if the argument is not valid.
+	 */
+	Optional<V> parse(String argument);
+
+	/**
+	 * Requests a list of possible completions for an argument of this type.
+	 * 
+	 * @param argument The partial argument to complete.
+	 * 
+	 * @return A List of possible completions, or empty if the argument cannot become a value of this type.
+	 */
+	List<String> complete(String argument);
+}
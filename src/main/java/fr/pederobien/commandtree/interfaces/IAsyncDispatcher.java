@@ -0,0 +1,20 @@
+package fr.pederobien.commandtree.interfaces;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface IAsyncDispatcher {
+
+	/**
+	 * Runs the given executor on a thread of this dispatcher. Cancelling the returned future, or its expiration, interrupts the
+	 * executor if it is still running and cancels the future it returned.
+	 * 
+	 * @param executor The executor to run.
+	 * @param args     The arguments given to the executor.
+	 * @param timeout  The maximum duration of the command, or null to use the default timeout of this dispatcher.
+	 * 
+	 * @return A future completed with the result of the executor, or exceptionally with a TimeoutException if the command has
+	 *         expired.
+	 */
+	CompletableFuture<Boolean> submit(IAsyncExecutor executor, String[] args, Duration timeout);
+}
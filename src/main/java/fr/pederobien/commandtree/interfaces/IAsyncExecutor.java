@@ -0,0 +1,18 @@
+package fr.pederobien.commandtree.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+
+@FunctionalInterface
+public interface IAsyncExecutor {
+
+	/**
+	 * Executes a command asynchronously. This method is called by an {@link IAsyncDispatcher} from one of its threads, it may block
+	 * or return a future completed later by another thread. If the returned future is still running when the command is cancelled or
+	 * times out, it is cancelled.
+	 *
+	 * @param args Passed command arguments.
+	 * 
+	 * @return A future completed with true if a valid command, otherwise false.
+	 */
+	CompletableFuture<Boolean> onCommandAsync(String[] args);
+}
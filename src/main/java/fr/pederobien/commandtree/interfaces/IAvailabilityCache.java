@@ -0,0 +1,23 @@
+package fr.pederobien.commandtree.interfaces;
+
+import java.time.Duration;
+
+public interface IAvailabilityCache {
+
+	/**
+	 * @return The duration during which the availability of a node is kept before its supplier is evaluated again, or null if the
+	 *         availabilities are only invalidated by {@link #invalidate()}.
+	 */
+	Duration getTimeToLive();
+
+	/**
+	 * @return The current epoch. An availability computed during a previous epoch is evaluated again.
+	 */
+	long getEpoch();
+
+	/**
+	 * Starts a new epoch, the availability of each node of the tree is evaluated again on the next call to
+	 * {@link INode#isAvailable()}.
+	 */
+	void invalidate();
+}
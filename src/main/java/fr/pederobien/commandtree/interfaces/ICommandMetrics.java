@@ -0,0 +1,17 @@
+package fr.pederobien.commandtree.interfaces;
+
+public interface ICommandMetrics {
+
+	/**
+	 * Copies the counters of each node that has been reached by a command or a completion since the metrics have been enabled or
+	 * reset. The counters keep being updated while the snapshot is taken, the snapshot of a node is not atomic.
+	 * 
+	 * @return A snapshot of the metrics of this tree.
+	 */
+	IMetricsSnapshot snapshot();
+
+	/**
+	 * Removes the counters of all nodes.
+	 */
+	void reset();
+}
@@ -1,5 +1,202 @@
 package fr.pederobien.commandtree.interfaces;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface ICommandRootNode<T> extends ICommandNode<T>, IRootNode<T> {
 
+	public enum BatchOrder {
+		/**
+		 * The commands are executed one after the other, in the order of the lines.
+		 */
+		SEQUENTIAL,
+
+		/**
+		 * The commands marked as independent are executed concurrently, a command that is not independent is executed once the
+		 * previous commands have completed and before the next ones start.
+		 */
+		PARALLEL
+	}
+
+	/**
+	 * Flattens the current structure of this root into an immutable dispatch table. The returned table resolves a full command line
+	 * to its target node in one pass and then hands off to the node executor. The table is not updated when a node is added or
+	 * removed, this method should be called again once the tree has changed.
+	 * 
+	 * @return A dispatch table compiled from the children of this root.
+	 */
+	IDispatchTable<T> compile();
+
+	/**
+	 * {@inheritDoc} Commands and completions can be dispatched against the returned snapshot, the availability of its nodes is still
+	 * given by the nodes of this tree.
+	 */
+	@Override
+	ICommandNode<T> freeze();
+
+	/**
+	 * Executes the given command line. The line is split lazily while walking the tree, the arguments of a branch that is not
+	 * recognized or not available are never converted into strings. Arguments are separated by whitespaces, a quoted argument can
+	 * contain whitespaces and the character '\' escapes the next character.
+	 * 
+	 * @param line The raw command line, without the command label.
+	 * 
+	 * @return true if a valid command, otherwise false.
+	 */
+	boolean onCommand(CharSequence line);
+
+	/**
+	 * Executes a command without throwing an exception when an argument is not found or not available. The exceptions thrown by the
+	 * executors for those reasons are converted into results, any other exception is propagated.
+	 * 
+	 * @param args The arguments passed to the command.
+	 * 
+	 * @return The result of the dispatch.
+	 */
+	IDispatchResult dispatch(String[] args);
+
+	/**
+	 * Executes the given command line without throwing an exception when an argument is not found or not available. The line is split
+	 * as by {@link #onCommand(CharSequence)}.
+	 * 
+	 * @param line The raw command line, without the command label.
+	 * 
+	 * @return The result of the dispatch.
+	 */
+	IDispatchResult dispatch(CharSequence line);
+
+	/**
+	 * Requests a list of possible completions for the last argument of the given command line. The line is split lazily while walking
+	 * the tree. If the line ends with a whitespace, the last argument is considered as empty.
+	 * 
+	 * @param line The raw command line, without the command label.
+	 * 
+	 * @return A List of possible completions for the final argument, or empty.
+	 */
+	List<String> onTabComplete(CharSequence line);
+
+	/**
+	 * Set the matcher used to filter the children of the nodes of this tree during a completion. By default, the children whose
+	 * label contains the partial argument, ignoring case, are proposed.
+	 * 
+	 * @param matcher The matcher, or null to use the default matcher.
+	 */
+	void setCompletionMatcher(ICompletionMatcher matcher);
+
+	/**
+	 * Enables a bounded cache of the children proposed by the nodes of this tree during a completion. Each node keeps the children
+	 * matching the last partial arguments, the entries of a node are dropped when a child is added or removed. The availability of
+	 * the matching children is checked at each completion, so the cache never proposes an unavailable child. Completions using the
+	 * prefix matcher are not cached since they are answered by a binary search.
+	 * 
+	 * @param maximumSize The maximum number of entries of each node, 0 to disable the cache.
+	 */
+	void setCompletionCacheSize(int maximumSize);
+
+	/**
+	 * @return The completion cache of this tree in order to get its hit and miss counters, or null if the cache is disabled.
+	 */
+	ICompletionCache getCompletionCache();
+
+	/**
+	 * Enables the cache of the availability of the nodes of this tree. The value returned by the supplier of a node is kept during
+	 * the given duration or until {@link IAvailabilityCache#invalidate()} is called. For example, invalidating the cache before each
+	 * completion request ensures each supplier is evaluated at most once per request.
+	 * 
+	 * @param timeToLive The duration during which an availability is kept, or null to keep it until the cache is invalidated.
+	 */
+	void setAvailabilityCache(Duration timeToLive);
+
+	/**
+	 * Disables the cache of the availability, the supplier of a node is evaluated at each call to {@link INode#isAvailable()}.
+	 */
+	void disableAvailabilityCache();
+
+	/**
+	 * @return The availability cache of this tree, or null if the cache is disabled.
+	 */
+	IAvailabilityCache getAvailabilityCache();
+
+	/**
+	 * Set the dispatcher used to notify the events thrown by the nodes of this tree. By default, the events are given synchronously
+	 * to the event manager while the tree is walked.
+	 * 
+	 * @param dispatcher The dispatcher, or null to dispatch the events synchronously.
+	 */
+	void setEventDispatcher(INodeEventDispatcher dispatcher);
+
+	/**
+	 * Executes several command lines. Each line is resolved just before its command is executed, so that it sees the changes made by
+	 * the previous commands: executing the lines sequentially is equivalent to calling {@link #onCommand(CharSequence)} for each line.
+	 * A line that fails does not prevent the next lines from being executed. The lines are executed sequentially when this method is
+	 * called from an asynchronous executor of this tree, whatever the given order.
+	 * 
+	 * @param lines The raw command lines, without the command label.
+	 * @param order The order in which the resolved commands are executed.
+	 * 
+	 * @return The result of each line, in the order of the lines.
+	 */
+	List<IDispatchResult> onCommands(List<? extends CharSequence> lines, BatchOrder order);
+
+	/**
+	 * Set the dispatcher used to run the asynchronous executors of the nodes of this tree.
+	 * 
+	 * @param dispatcher The dispatcher, or null to use the default dispatcher.
+	 */
+	void setAsyncDispatcher(IAsyncDispatcher dispatcher);
+
+	/**
+	 * Executes a command without blocking on asynchronous executors. The tree is walked by the calling thread, the executor of the
+	 * reached node is run by the dispatcher of this tree if it is asynchronous, otherwise by the calling thread.
+	 * 
+	 * @param args The arguments passed to the command.
+	 * 
+	 * @return A future completed with true if a valid command, otherwise false. It is completed exceptionally if an argument is not
+	 *         found or not available, or if the command has expired.
+	 */
+	CompletableFuture<Boolean> onCommandAsync(String[] args);
+
+	/**
+	 * Executes the given command line without blocking on asynchronous executors. The line is split as by
+	 * {@link #onCommand(CharSequence)}.
+	 * 
+	 * @param line The raw command line, without the command label.
+	 * 
+	 * @return A future completed with true if a valid command, otherwise false.
+	 */
+	CompletableFuture<Boolean> onCommandAsync(CharSequence line);
+
+	/**
+	 * Enables the metrics of this tree. Each command executed or dispatched from the root is counted by status, and its duration is
+	 * recorded, on the node it stopped on. The duration of the completions is recorded in the same way. The counters are striped so
+	 * that they can be updated concurrently without contention. When the metrics are disabled, no counter is updated.
+	 * 
+	 * @param enabled True to enable the metrics, false to disable them and drop the current counters.
+	 */
+	void setMetricsEnabled(boolean enabled);
+
+	/**
+	 * @return The metrics of this tree, or null if they are disabled.
+	 */
+	ICommandMetrics getMetrics();
+
+	/**
+	 * Set the listener notified while this tree is walked in order to execute or complete a command: the visited nodes, the evaluated
+	 * availabilities, the executors and completors that are invoked and the node on which the dispatch stopped. When there is no
+	 * listener, nothing is measured nor allocated.
+	 * 
+	 * @param listener The listener, or null to remove it.
+	 */
+	void setDispatchListener(IDispatchListener listener);
+
+	/**
+	 * Set the way the children of the nodes of this tree are stored. In concurrent mode, the children of a node are stored in an
+	 * immutable map that is copied and replaced atomically when a child is added or removed. Nodes can then be added or removed while
+	 * other threads dispatch or complete commands, without lock on the read path. Adding a child costs a copy of the map of its
+	 * parent, this mode should be enabled once the static part of the tree has been built.
+	 * 
+	 * @param concurrent True to enable the concurrent mode.
+	 */
+	void setConcurrent(boolean concurrent);
 }
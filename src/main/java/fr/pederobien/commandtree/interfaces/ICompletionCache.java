@@ -0,0 +1,29 @@
+package fr.pederobien.commandtree.interfaces;
+
+public interface ICompletionCache {
+
+	/**
+	 * @return The number of completions answered by this cache.
+	 */
+	long getHitCount();
+
+	/**
+	 * @return The number of completions that had to be computed.
+	 */
+	long getMissCount();
+
+	/**
+	 * @return The number of entries currently stored by the nodes of the tree.
+	 */
+	int size();
+
+	/**
+	 * @return The maximum number of entries stored by each node of the tree.
+	 */
+	int getMaximumSize();
+
+	/**
+	 * Removes all entries and resets the hit and miss counters.
+	 */
+	void clear();
+}
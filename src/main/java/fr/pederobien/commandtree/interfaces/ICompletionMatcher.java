@@ -0,0 +1,17 @@
+package fr.pederobien.commandtree.interfaces;
+
+@FunctionalInterface
+public interface ICompletionMatcher {
+
+	/**
+	 * Check if a candidate should be proposed to complete the given filter. The case-folded label is computed once when the
+	 * candidate is registered, implementations should not change the case of the label or of the filter.
+	 * 
+	 * @param label       The label of the candidate.
+	 * @param foldedLabel The case-folded label of the candidate.
+	 * @param filter      The case-folded partial argument to complete.
+	 * 
+	 * @return True if the candidate matches the filter, false otherwise.
+	 */
+	boolean matches(String label, String foldedLabel, String filter);
+}
@@ -13,4 +13,17 @@ public interface ICompletor {
 	 * @return A List of possible completions for the final argument, or empty.
 	 */
 	public List<String> onTabComplete(String[] args);
+
+	/**
+	 * Requests a list of possible completions for a command argument. The default implementation copies the remaining arguments of
+	 * the cursor and calls {@link #onTabComplete(String[])}. Nodes that forward the completion to their children should override it
+	 * in order to move the cursor instead of creating a new array at each level.
+	 * 
+	 * @param args A cursor on the arguments passed to the command, including final partial argument to be completed.
+	 * 
+	 * @return A List of possible completions for the final argument, or empty.
+	 */
+	default List<String> onTabComplete(IArgumentCursor args) {
+		return onTabComplete(args.toArray());
+	}
 }
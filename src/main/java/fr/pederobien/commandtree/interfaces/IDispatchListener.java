@@ -0,0 +1,82 @@
+package fr.pederobien.commandtree.interfaces;
+
+import fr.pederobien.commandtree.interfaces.IDispatchResult.Status;
+
+public interface IDispatchListener {
+
+	public enum Phase {
+		/**
+		 * The tree is walked in order to execute a command.
+		 */
+		COMMAND,
+
+		/**
+		 * The tree is walked in order to complete a command.
+		 */
+		COMPLETION
+	}
+
+	/**
+	 * Notified by the root when it starts walking the tree. The events of a request are notified by the thread that walks the tree,
+	 * except the end of an asynchronous executor.
+	 * 
+	 * @param root  The root of the tree.
+	 * @param phase The reason why the tree is walked.
+	 */
+	default void onStart(INode<?> root, Phase phase) {
+	}
+
+	/**
+	 * Notified each time a node is reached by an argument.
+	 * 
+	 * @param node     The reached node.
+	 * @param argument The argument that corresponds to the node, it can be an alias of the node.
+	 * @param phase    The reason why the tree is walked.
+	 */
+	default void onVisit(INode<?> node, String argument, Phase phase) {
+	}
+
+	/**
+	 * Notified each time the supplier of the availability of a node is evaluated. The availabilities kept by the availability cache of
+	 * the tree are not notified.
+	 * 
+	 * @param node      The node whose availability has been evaluated.
+	 * @param available The value returned by the supplier.
+	 * @param nanos     The time spent in the supplier, in nanoseconds.
+	 */
+	default void onAvailability(INode<?> node, boolean available, long nanos) {
+	}
+
+	/**
+	 * Notified when the executor or the completor given to a node by a {@link fr.pederobien.commandtree.impl.Tree} builder returns.
+	 * 
+	 * @param node  The node that owns the executor or the completor.
+	 * @param phase {@link Phase#COMMAND} for an executor, {@link Phase#COMPLETION} for a completor.
+	 * @param nanos The time spent in the executor or in the completor, in nanoseconds.
+	 * @param error The exception thrown by the executor or the completor, or null.
+	 */
+	default void onInvoke(INode<?> node, Phase phase, long nanos, Throwable error) {
+	}
+
+	/**
+	 * Notified when the dispatch of a command stops on a node.
+	 * 
+	 * @param node     The node on which the dispatch stopped. For {@link Status#NOT_FOUND}, it is the node that has no child for the
+	 *                 argument.
+	 * @param argument The argument on which the dispatch stopped, or null if the node handled the command.
+	 * @param status   The status of the command.
+	 */
+	default void onStop(INode<?> node, String argument, Status status) {
+	}
+
+	/**
+	 * Notified by the root when it has finished walking the tree. For an asynchronous command, it is notified once the future
+	 * returned by the root is completed.
+	 * 
+	 * @param root  The root of the tree.
+	 * @param phase The reason why the tree has been walked.
+	 * @param nanos The time spent since {@link #onStart(INode, Phase)}, in nanoseconds.
+	 */
+	default void onEnd(INode<?> root, Phase phase, long nanos) {
+	}
+}
@@ -0,0 +1,76 @@
+package fr.pederobien.commandtree.interfaces;
+
+import java.util.List;
+
+public interface IDispatchResult {
+
+	public enum Status {
+		/**
+		 * The command has been executed and its executor returned true.
+		 */
+		SUCCESS,
+
+		/**
+		 * The command has been executed and its executor returned false or threw an exception.
+		 */
+		FAILED,
+
+		/**
+		 * An argument does not correspond to any child of the previous node.
+		 */
+		NOT_FOUND,
+
+		/**
+		 * The command, or the node associated to an argument, is not available.
+		 */
+		NOT_AVAILABLE,
+
+		/**
+		 * The command has been rejected by the concurrency or the rate limit of the reached node.
+		 */
+		REJECTED
+	}
+
+	/**
+	 * @return The status of the dispatch.
+	 */
+	Status getStatus();
+
+	/**
+	 * @return True if the status is {@link Status#SUCCESS}, false otherwise.
+	 */
+	boolean isSuccess();
+
+	/**
+	 * @return The label of the node on which the dispatch stopped. For an argument that has not been found, it is the label of the
+	 *         node that has no child for this argument.
+	 */
+	String getLabel();
+
+	/**
+	 * @return The argument on which the dispatch stopped, or null if the dispatch did not stop on an argument.
+	 */
+	String getArgument();
+
+	/**
+	 * @return The position of the argument on which the dispatch stopped in the given arguments, or -1 if it is unknown or if the
+	 *         command itself is not available.
+	 */
+	int getPosition();
+
+	/**
+	 * @return The label of the available nodes close to an argument that has not been found, sorted from the closest. The list is
+	 *         computed on the first call.
+	 */
+	List<String> getSuggestions();
+
+	/**
+	 * @return The exception thrown by the executor, or null if the executor did not throw an exception.
+	 */
+	Throwable getError();
+
+	/**
+	 * @return A message that describes the result, built when it is requested.
+	 */
+	String getMessage();
+}
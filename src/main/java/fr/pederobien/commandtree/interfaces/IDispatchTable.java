@@ -0,0 +1,47 @@
+package fr.pederobien.commandtree.interfaces;
+
+public interface IDispatchTable<T> extends IExecutor {
+
+	/**
+	 * @return The root node from which this dispatch table has been compiled.
+	 */
+	ICommandRootNode<T> getRoot();
+
+	/**
+	 * Resolves, in one pass, the deepest node registered in this table that matches the given arguments. The availability of the
+	 * nodes is not checked.
+	 * 
+	 * @param args The arguments passed to the command.
+	 * 
+	 * @return The deepest matching node, or the root if the first argument does not match any child.
+	 */
+	ICommandNode<T> resolve(String... args);
+
+	/**
+	 * Executes the given command line. The line is split lazily while walking the table, the arguments of a branch that is not
+	 * recognized or not available are never converted into strings.
+	 * 
+	 * @param line The raw command line, without the command label.
+	 * 
+	 * @return true if a valid command, otherwise false.
+	 */
+	boolean onCommand(CharSequence line);
+
+	/**
+	 * Executes a command without throwing an exception when an argument is not found or not available.
+	 * 
+	 * @param args The arguments passed to the command.
+	 * 
+	 * @return The result of the dispatch.
+	 */
+	IDispatchResult dispatch(String[] args);
+
+	/**
+	 * Executes the given command line without throwing an exception when an argument is not found or not available.
+	 * 
+	 * @param line The raw command line, without the command label.
+	 * 
+	 * @return The result of the dispatch.
+	 */
+	IDispatchResult dispatch(CharSequence line);
+}
@@ -11,4 +11,17 @@ public interface IExecutor {
 	 * @return true if a valid command, otherwise false.
 	 */
 	boolean onCommand(String[] args);
+
+	/**
+	 * Executes a command and returns its success. The default implementation copies the remaining arguments of the cursor and calls
+	 * {@link #onCommand(String[])}. Nodes that forward the command to their children should override it in order to move the cursor
+	 * instead of creating a new array at each level.
+	 * 
+	 * @param args A cursor on the passed command arguments.
+	 * 
+	 * @return true if a valid command, otherwise false.
+	 */
+	default boolean onCommand(IArgumentCursor args) {
+		return onCommand(args.toArray());
+	}
 }
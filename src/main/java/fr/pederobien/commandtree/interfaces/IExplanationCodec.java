@@ -0,0 +1,25 @@
+package fr.pederobien.commandtree.interfaces;
+
+import java.nio.ByteBuffer;
+
+public interface IExplanationCodec<T> {
+
+	/**
+	 * Get the bytes that represent the given explanation in a snapshot of a tree.
+	 * 
+	 * @param explanation The explanation of a node, not null.
+	 * 
+	 * @return The encoded explanation.
+	 */
+	byte[] encode(T explanation);
+
+	/**
+	 * Get the explanation represented by the remaining bytes of the given buffer. The buffer may be a view on a memory-mapped file, it
+	 * is only valid during this call.
+	 * 
+	 * @param buffer A buffer whose remaining bytes are the bytes returned by {@link #encode(Object)}.
+	 * 
+	 * @return The decoded explanation.
+	 */
+	T decode(ByteBuffer buffer);
+}
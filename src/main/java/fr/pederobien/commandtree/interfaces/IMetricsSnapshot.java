@@ -0,0 +1,96 @@
+package fr.pederobien.commandtree.interfaces;
+
+import java.util.List;
+
+import fr.pederobien.commandtree.interfaces.IDispatchResult.Status;
+
+public interface IMetricsSnapshot {
+
+	/**
+	 * @return The metrics of each node reached by a command or a completion, sorted by path.
+	 */
+	List<INodeMetrics> getNodes();
+
+	/**
+	 * @return A human readable representation of this snapshot, one line per node.
+	 */
+	String toText();
+
+	/**
+	 * @return A JSON representation of this snapshot. The durations are expressed in nanoseconds.
+	 */
+	String toJson();
+
+	public interface INodeMetrics {
+
+		/**
+		 * @return The labels from the root to the node, separated by a space.
+		 */
+		String getPath();
+
+		/**
+		 * @return The number of commands that stopped on the node.
+		 */
+		long getInvocations();
+
+		/**
+		 * Get the number of commands that stopped on the node with the given status. A command whose executor returned false or threw an
+		 * exception is counted as {@link Status#FAILED}, an argument that does not correspond to any child of the node is counted as
+		 * {@link Status#NOT_FOUND}.
+		 * 
+		 * @param status The status of the commands to count.
+		 * 
+		 * @return The number of commands with the given status.
+		 */
+		long getCount(Status status);
+
+		/**
+		 * @return The number of commands that stopped on the node without success.
+		 */
+		long getFailures();
+
+		/**
+		 * @return The latency of the commands that stopped on the node.
+		 */
+		ILatency getCommandLatency();
+
+		/**
+		 * @return The latency of the completions that stopped on the node.
+		 */
+		ILatency getCompletionLatency();
+	}
+
+	public interface ILatency {
+
+		/**
+		 * @return The number of recorded durations.
+		 */
+		long getCount();
+
+		/**
+		 * @return The sum of the recorded durations, in nanoseconds.
+		 */
+		long getTotalNanos();
+
+		/**
+		 * @return The longest recorded duration, in nanoseconds.
+		 */
+		long getMaxNanos();
+
+		/**
+		 * @return The mean of the recorded durations, in nanoseconds, or 0 if no duration has been recorded.
+		 */
+		double getMeanNanos();
+
+		/**
+		 * Get the duration under which the given fraction of the recorded durations lies. The durations are stored in buckets whose width
+		 * is a quarter of their power of two, the returned value is the upper bound of the bucket and overestimates the exact percentile
+		 * by at most 25%.
+		 * 
+		 * @param percentile The fraction of the recorded durations, between 0 and 1.
+		 * 
+		 * @return The duration of the percentile, in nanoseconds, or 0 if no duration has been recorded.
+		 */
+		long getPercentileNanos(double percentile);
+	}
+}
@@ -2,11 +2,17 @@ package fr.pederobien.commandtree.interfaces;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import fr.pederobien.commandtree.events.NodeAddPostEvent;
 import fr.pederobien.commandtree.events.NodeRemovePostEvent;
 import fr.pederobien.commandtree.exceptions.NodeRegisterException;
+import fr.pederobien.commandtree.impl.NodePath;
+import fr.pederobien.commandtree.impl.NodeSpliterator;
 
 public interface INode<T> extends Iterable<Map.Entry<String, INode<T>>> {
 
@@ -39,6 +45,17 @@ public interface INode<T> extends Iterable<Map.Entry<String, INode<T>>> {
 	 */
 	INode<T> getRoot();
 
+	/**
+	 * Get the path from the root to this node. The nodes of this library compute the path once and keep it while the structure of the
+	 * tree does not change, so that the root, the depth and the ancestors of a node are found in constant time. By default, the path
+	 * is computed at each call following the parent of each node.
+	 * 
+	 * @return The path of this node.
+	 */
+	default INodePath<T> getPath() {
+		return NodePath.of(this);
+	}
+
 	/**
 	 * Appends a node to this node. This element is stored into a Map with key is {@link INode#getLabel()} and the value is itself. Be
 	 * careful, if two nodes have the same label then the first node is removed in order to add the second one. This method should
@@ -72,6 +89,53 @@ public interface INode<T> extends Iterable<Map.Entry<String, INode<T>>> {
 	 */
 	List<? extends INode<T>> getChildrenByLabel(String label);
 
+	/**
+	 * Get a spliterator that lazily traverses this node and its descendants in depth-first pre-order. The traversal is iterative and
+	 * can be split in order to be used by a parallel stream.
+	 * 
+	 * @param filter The condition a node should satisfy to be traversed. A node that does not satisfy it is skipped with its whole
+	 *                   subtree.
+	 * 
+	 * @return An ordered spliterator over this node and its descendants.
+	 */
+	default Spliterator<INode<T>> depthFirst(Predicate<? super INode<T>> filter) {
+		return NodeSpliterator.depthFirst(this, filter);
+	}
+
+	/**
+	 * Get a spliterator that lazily traverses this node and its descendants level by level. The traversal is iterative and can be
+	 * split in order to be used by a parallel stream, in which case the level order is not kept.
+	 * 
+	 * @param filter The condition a node should satisfy to be traversed. A node that does not satisfy it is skipped with its whole
+	 *                   subtree.
+	 * 
+	 * @return A spliterator over this node and its descendants.
+	 */
+	default Spliterator<INode<T>> breadthFirst(Predicate<? super INode<T>> filter) {
+		return NodeSpliterator.breadthFirst(this, filter);
+	}
+
+	/**
+	 * @return A sequential stream over this node and all its descendants in depth-first pre-order.
+	 */
+	default Stream<INode<T>> descendants() {
+		return descendants(node -> true, false);
+	}
+
+	/**
+	 * Get a stream over this node and its descendants in depth-first pre-order. The nodes are only visited when the stream is
+	 * consumed, so that a short-circuiting operation stops the traversal.
+	 * 
+	 * @param filter   The condition a node should satisfy to be traversed. A node that does not satisfy it is skipped with its whole
+	 *                     subtree.
+	 * @param parallel True in order to get a parallel stream.
+	 * 
+	 * @return A stream over this node and its descendants.
+	 */
+	default Stream<INode<T>> descendants(Predicate<? super INode<T>> filter, boolean parallel) {
+		return StreamSupport.stream(depthFirst(filter), parallel);
+	}
+
 	/**
 	 * A node is available means that is can be used as minecraft argument.
 	 * 
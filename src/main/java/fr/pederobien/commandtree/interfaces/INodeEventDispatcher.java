@@ -0,0 +1,14 @@
+package fr.pederobien.commandtree.interfaces;
+
+import fr.pederobien.commandtree.events.NodeEvent;
+
+@FunctionalInterface
+public interface INodeEventDispatcher {
+
+	/**
+	 * Notifies the listeners of the given event. By default, the event is given synchronously to the event manager.
+	 * 
+	 * @param event The event thrown by a node.
+	 */
+	void dispatch(NodeEvent event);
+}
@@ -0,0 +1,45 @@
+package fr.pederobien.commandtree.interfaces;
+
+import java.util.List;
+
+public interface INodePath<T> {
+
+	/**
+	 * @return The node at the end of this path.
+	 */
+	INode<T> getNode();
+
+	/**
+	 * @return The path of the parent node, or null if the node has no parent.
+	 */
+	INodePath<T> getParent();
+
+	/**
+	 * @return The node at the beginning of this path, that has no parent.
+	 */
+	INode<T> getRoot();
+
+	/**
+	 * @return The number of ancestors of the node, 0 for a node that has no parent.
+	 */
+	int getDepth();
+
+	/**
+	 * Check if the node of this path is an ancestor of the node of the given path. A node is not an ancestor of itself.
+	 * 
+	 * @param path The path of the node to check.
+	 * 
+	 * @return True if the given path goes through the node of this path.
+	 */
+	boolean isAncestorOf(INodePath<T> path);
+
+	/**
+	 * @return The nodes of this path, from the root to the node.
+	 */
+	List<INode<T>> getNodes();
+
+	/**
+	 * @return The labels of the nodes of this path, from the root to the node.
+	 */
+	List<String> getLabels();
+}
@@ -16,4 +16,13 @@ public interface IRootNode<T> extends INode<T> {
 	 * @param root The new root.
 	 */
 	void export(INode<T> root);
+
+	/**
+	 * Creates an immutable snapshot of this root and of all its descendants. The snapshot uses a compact read-optimized
+	 * representation, it can not be modified and is not updated when this tree is modified. In that case, a new snapshot should be
+	 * created and used instead of the previous one.
+	 * 
+	 * @return The snapshot of this root.
+	 */
+	INode<T> freeze();
 }
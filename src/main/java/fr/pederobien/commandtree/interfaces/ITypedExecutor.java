@@ -0,0 +1,16 @@
+package fr.pederobien.commandtree.interfaces;
+
+@FunctionalInterface
+public interface ITypedExecutor {
+
+	/**
+	 * Executes a command whose arguments have been parsed according to the types of the node. This method is only called if there is
+	 * one argument per type and each argument is a value of its type.
+	 *
+	 * @param values The value of each argument, as returned by {@link IArgumentType#parse(String)}, in order. If no type has been set
+	 *                   for the node, the passed command arguments.
+	 * 
+	 * @return true if a valid command, otherwise false.
+	 */
+	boolean onCommand(Object[] values);
+}